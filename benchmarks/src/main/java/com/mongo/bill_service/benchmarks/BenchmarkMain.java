@@ -0,0 +1,19 @@
+package com.mongo.bill_service.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// JMH's own command line, plus the gc profiler for allocation rates and a JSON result file that
+// runs can be compared with. Other JMH options given on the command line still apply.
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json").build();
+		new Runner(options).run();
+	}
+}
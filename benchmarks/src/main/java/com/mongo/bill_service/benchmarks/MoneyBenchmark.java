@@ -0,0 +1,60 @@
+package com.mongo.bill_service.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mongo.bill_service.money.Money;
+
+// Rupee strings to paise and back, run for every amount read from or written to JSON
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MoneyBenchmark {
+
+	private static final int AMOUNTS = 1024;
+
+	String[] rupees = new String[AMOUNTS];
+
+	long[] paise = new long[AMOUNTS];
+
+	int next;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(SyntheticBills.SEED);
+		for (int i = 0; i < AMOUNTS; i++) {
+			paise[i] = random.nextInt(10000000);
+			rupees[i] = Money.format(paise[i]);
+		}
+	}
+
+	@Benchmark
+	public long parse() {
+		return Money.parse(rupees[next++ & (AMOUNTS - 1)]);
+	}
+
+	@Benchmark
+	public String format() {
+		return Money.format(paise[next++ & (AMOUNTS - 1)]);
+	}
+
+	@Benchmark
+	public void split(Blackhole blackhole) {
+		blackhole.consume(Money.split(paise[next++ & (AMOUNTS - 1)], 7));
+	}
+}
@@ -0,0 +1,60 @@
+package com.mongo.bill_service.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.services.BillService;
+
+// BillService.split and prepare, the work done on every save and on every split read that misses the cache
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SplitBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int items;
+
+	@Param({ "2", "8", "32" })
+	int participants;
+
+	@Param({ "0", "4" })
+	int charges;
+
+	BillService billService = new BillService();
+
+	BillDetails bill;
+
+	@Setup
+	public void setup() {
+		bill = SyntheticBills.bill(new Random(SyntheticBills.SEED), items, participants, charges);
+	}
+
+	@Benchmark
+	public List<Split> split() {
+		return billService.split(bill);
+	}
+
+	// Totals, participant keys, date normalization and the split; prepare only overwrites derived fields
+	@Benchmark
+	public BillDetails prepare() {
+		return billService.prepare(bill);
+	}
+}
@@ -0,0 +1,65 @@
+package com.mongo.bill_service.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.PriceBreakdown;
+import com.mongo.bill_service.documents.PriceBreakdown.Types;
+
+// Bills shaped like the uploaded ones, generated from a fixed seed so every run measures the same input
+public class SyntheticBills {
+
+	public static final long SEED = 42;
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+	public static BillDetails bill(Random random, int items, int participants, int charges) {
+		BillDetails bill = new BillDetails();
+		bill.setStore("Store " + random.nextInt(20));
+		bill.setBillNumber(String.valueOf(100000 + random.nextInt(900000)));
+
+		LocalDateTime timestamp = START.plusMinutes(random.nextInt(60 * 24 * 365));
+		bill.setBillDate(timestamp.format(Consts.DATE_FORMATTER));
+		bill.setTime(timestamp.format(Consts.TIME_FORMATTER));
+
+		for (int i = 0; i < items; i++) {
+			Item item = new Item();
+			item.setItemId(i + 1);
+			item.setName("Item " + i);
+			item.setQuantity(1 + random.nextInt(5));
+			item.setRate(100 + random.nextInt(100000));
+			item.setValue(item.getRate() * item.getQuantity());
+
+			// Most items are shared by a few people, some by everyone
+			int shared = random.nextInt(4) == 0 ? participants : 1 + random.nextInt(Math.min(3, participants));
+			int first = random.nextInt(participants);
+			for (int p = 0; p < shared; p++) {
+				item.getParticipants().add("Person " + (first + p) % participants);
+			}
+			bill.getItems().add(item);
+		}
+
+		Types[] types = Types.values();
+		for (int i = 0; i < charges; i++) {
+			Types type = types[random.nextInt(types.length)];
+			bill.getExtraPrices().add(new PriceBreakdown(type.name() + " " + i, 100 + random.nextInt(10000), type));
+		}
+		return bill;
+	}
+
+	public static List<BillDetails> bills(int count, int items, int participants, int charges) {
+		Random random = new Random(SEED);
+		List<BillDetails> bills = new ArrayList<BillDetails>(count);
+		for (int i = 0; i < count; i++) {
+			BillDetails bill = bill(random, items, participants, charges);
+			bill.setBillId(i + 1);
+			bills.add(bill);
+		}
+		return bills;
+	}
+}
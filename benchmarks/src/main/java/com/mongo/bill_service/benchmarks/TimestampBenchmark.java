@@ -0,0 +1,64 @@
+package com.mongo.bill_service.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+
+// Ordering bills by date and time: parsing the strings in the comparator, as listing did before
+// billTimestamp was stored, against parsing once per bill, against comparing the stored timestamp
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TimestampBenchmark {
+
+	@Param({ "100", "10000" })
+	int bills;
+
+	List<BillDetails> unsorted;
+
+	@Setup
+	public void setup() {
+		unsorted = SyntheticBills.bills(bills, 1, 1, 0);
+		unsorted.forEach(t -> t.setBillTimestamp(Consts.parseTimestamp(t.getBillDate(), t.getTime())));
+	}
+
+	@Benchmark
+	public List<BillDetails> parseInComparator() {
+		return unsorted.stream().sorted(Comparator
+				.comparing((BillDetails t) -> Consts.parseTimestamp(t.getBillDate(), t.getTime())).reversed())
+				.toList();
+	}
+
+	@Benchmark
+	public List<BillDetails> parseOnce() {
+		return unsorted.stream().map(t -> new Keyed(Consts.parseTimestamp(t.getBillDate(), t.getTime()), t))
+				.sorted(Comparator.comparing(Keyed::timestamp).reversed()).map(Keyed::bill).toList();
+	}
+
+	@Benchmark
+	public List<BillDetails> storedTimestamp() {
+		return unsorted.stream().sorted(Comparator.comparing(BillDetails::getBillTimestamp).reversed()).toList();
+	}
+
+	private record Keyed(LocalDateTime timestamp, BillDetails bill) {
+	}
+}
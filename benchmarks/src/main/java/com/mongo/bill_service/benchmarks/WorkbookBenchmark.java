@@ -0,0 +1,91 @@
+package com.mongo.bill_service.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongo.bill_service.controller.BillController;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.excel.ExcelStyles;
+import com.mongo.bill_service.excel.ExcelWorkbooks;
+import com.mongo.bill_service.services.BillService;
+
+// The /bill/{billId}/download workbook, built the same way ExcelWorkbooks.download does and written
+// to a discarding stream, so the zip and temp file cost is measured but no socket is involved
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class WorkbookBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int items;
+
+	@Param({ "4", "16" })
+	int participants;
+
+	BillDetails bill;
+
+	List<Split> splits;
+
+	Map<String, List<Item>> personItems;
+
+	@Setup
+	public void setup() {
+		BillService billService = new BillService();
+		bill = billService.prepare(SyntheticBills.bill(new Random(SyntheticBills.SEED), items, participants, 4));
+		splits = billService.split(bill);
+		personItems = billService.itemsByParticipant(bill);
+	}
+
+	@Benchmark
+	public void download() throws IOException {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(ExcelWorkbooks.ROW_WINDOW);
+		workbook.setCompressTempFiles(true);
+		try (workbook) {
+			ExcelStyles styles = new ExcelStyles(workbook);
+			BillController.addSummarySheet(workbook, styles, bill);
+			BillController.addSheetForSplits(workbook, styles, "Splits", splits);
+			for (Entry<String, List<Item>> person : personItems.entrySet()) {
+				BillController.addSheet(workbook, styles, person.getKey(), person.getValue(), false);
+			}
+			workbook.write(OutputStream.nullOutputStream());
+		} finally {
+			workbook.dispose();
+		}
+	}
+
+	// The per-person items export, a single sheet
+	@Benchmark
+	public void items() throws IOException {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(ExcelWorkbooks.ROW_WINDOW);
+		workbook.setCompressTempFiles(true);
+		try (workbook) {
+			BillController.addSheet(workbook, new ExcelStyles(workbook), "ITEMS", bill.getItems(), true);
+			workbook.write(OutputStream.nullOutputStream());
+		} finally {
+			workbook.dispose();
+		}
+	}
+}
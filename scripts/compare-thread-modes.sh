@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Throughput and p99 latency of the platform-thread mode against the virtual-thread mode
+# (profile "virtual"), same jar, same data, same load. Needs a Java 21 JDK, ApacheBench (ab),
+# curl and the Mongo from application.properties (override with SPRING_DATA_MONGODB_* variables).
+#
+#   scripts/compare-thread-modes.sh            # results in target/thread-modes.csv
+#   REQUESTS=50000 CONCURRENCY=1000 scripts/compare-thread-modes.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+REQUESTS=${REQUESTS:-20000}
+CONCURRENCY=${CONCURRENCY:-400}
+SEED_BILLS=${SEED_BILLS:-2000}
+PORT=${PORT:-18086}
+BASE="http://127.0.0.1:$PORT/bill-service"
+RESULTS=target/thread-modes.csv
+
+sh ./mvnw -q -B -Pjava21 -DskipTests package
+JAR=$(ls target/bill-service-*.jar | grep -v original | head -1)
+
+bill() {
+	printf '{"store":"Store %d","billNumber":"B%d","billDate":"%02d/10/2026","time":"01:15 PM","paidBy":"Asha",' $(($1 % 50)) "$1" $(($1 % 28 + 1))
+	printf '"items":[{"name":"Milk","quantity":2,"rate":30.5,"value":61,"participants":["Asha","Ravi"]},'
+	printf '{"name":"Bread","quantity":1,"rate":40,"value":40,"participants":["Ravi","Meera"]}],'
+	printf '"extraPrices":[{"name":"GST","value":5,"type":"TAX"}]}\n'
+}
+
+start() {
+	java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$1" > "target/thread-mode-$2.log" 2>&1 &
+	PID=$!
+	until curl -sf -o /dev/null "$BASE/bills?limit=1"; do
+		kill -0 "$PID" || { echo "Service failed to start, see target/thread-mode-$2.log"; exit 1; }
+		sleep 1
+	done
+}
+
+load() {
+	ab -q -k -n "$REQUESTS" -c "$CONCURRENCY" "$BASE$2" > target/ab.txt
+	echo "$1,$2,$(awk '/Requests per second/ {print $4}' target/ab.txt),$(awk '$1 == "99%" {print $2}' target/ab.txt)" >> "$RESULTS"
+}
+
+# Seeded once, both modes read the same bills
+start default platform
+BILL_ID=$(for i in $(seq 1 "$SEED_BILLS"); do bill "$i"; done \
+	| curl -sf -H 'Content-Type: application/x-ndjson' --data-binary @- "$BASE/bills/bulk" \
+	| grep -o '"billId":[0-9]*' | head -1 | cut -d: -f2)
+kill "$PID"; wait "$PID" || true
+
+echo "mode,endpoint,requests_per_second,p99_ms" > "$RESULTS"
+for mode in platform virtual; do
+	start "$([ $mode = virtual ] && echo virtual || echo default)" $mode
+	load $mode "/bills?limit=100"
+	load $mode "/bill/$BILL_ID/split"
+	load $mode "/bill/$BILL_ID/download"
+	kill "$PID"; wait "$PID" || true
+done
+
+column -s, -t "$RESULTS"
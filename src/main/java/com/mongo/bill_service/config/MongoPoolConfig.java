@@ -0,0 +1,31 @@
+package com.mongo.bill_service.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Connection pool limits of the Mongo client, sized per thread mode in the profile properties
+@Configuration
+public class MongoPoolConfig {
+
+	@Value("${bill.mongo.pool.max-size}")
+	int maxSize;
+
+	@Value("${bill.mongo.pool.min-size}")
+	int minSize;
+
+	@Value("${bill.mongo.pool.max-connecting}")
+	int maxConnecting;
+
+	@Value("${bill.mongo.pool.max-wait-ms}")
+	long maxWaitMs;
+
+	@Bean
+	MongoClientSettingsBuilderCustomizer mongoPoolCustomizer() {
+		return builder -> builder.applyToConnectionPoolSettings(pool -> pool.maxSize(maxSize).minSize(minSize)
+				.maxConnecting(maxConnecting).maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS));
+	}
+}
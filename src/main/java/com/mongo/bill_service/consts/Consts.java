@@ -1,12 +1,12 @@
 package com.mongo.bill_service.consts;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.text.Normalizer;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
-
-import com.mongo.bill_service.entities.Split;
-import com.mongo.bill_service.entities.SplitResponse;
+import java.util.regex.Pattern;
 
 public class Consts {
 
@@ -18,6 +18,22 @@ public class Consts {
 
 	public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(TIME_FORMAT, Locale.ENGLISH);
 
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	public static LocalDateTime parseTimestamp(String billDate, String time) {
+		return LocalDateTime.of(LocalDate.parse(billDate, DATE_FORMATTER), LocalTime.parse(time, TIME_FORMATTER));
+	}
+
+	// Matching form of a participant name: NFKC, trimmed, single spaces, lower case
+	public static String participantKey(String name) {
+		String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).trim();
+		return WHITESPACE.matcher(normalized).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
+
 	public static final String welcomeHTML = """
 			<!DOCTYPE html>
 			<html lang="en">
@@ -66,7 +82,7 @@ public class Consts {
 			         	%s
 			        </div>
 			        <div class="text-center total-section">
-			            Total: ₹%.2f
+			            Total: ₹%s
 			        </div>
 			    </div>
 
@@ -76,45 +92,28 @@ public class Consts {
 			</html>
 				""";
 
-	public static String getSplitHTML(SplitResponse splitResponse) {
+	// One per split inside welcomeHTML: name, amount, item count, itemListHTML
+	public static final String splitCardHTML = """
 
-		String cards = splitResponse.getDetails().stream().map(t -> getCard(t)).collect(Collectors.joining("\n"));
+			<div class="col">
+			             <div class="card">
+			                 <div class="card-header">%s</div>
+			                 <div class="card-body">
+			                     <p><strong>Split Amount: ₹%s</strong> </p>
+			                     <p><strong>Items: %d</strong></p>
+			                     %s
+			                 </div>
+			             </div>
+			       </div>
 
-		return String.format(welcomeHTML, cards, splitResponse.getTotal());
-	}
 
-	public static String getCard(Split split) {
+			""";
 
-		String template = """
+	public static final String itemListHTML = """
 
-				<div class="col">
-				             <div class="card">
-				                 <div class="card-header">%s</div>
-				                 <div class="card-body">
-				                     <p><strong>Split Amount: ₹%.2f</strong> </p>
-				                     <p><strong>Items: %d</strong></p>
-				                     %s
-				                 </div>
-				             </div>
-				       </div>
+			<ul class="item-list">
+			          %s
+			       </ul>
 
-
-				""";
-
-		return String.format(template, split.getName(), split.getSplit(), split.getItemcount());
-	}
-
-	public static String getUl(List<String> item) {
-
-		String uls = """
-
-				<ul class="item-list">
-				          %s
-				       </ul>
-
-				""";
-
-		return String.format(uls, item.stream().map(t -> "<li>" + t + "</li>").collect(Collectors.joining("\n")));
-
-	}
+			""";
 }
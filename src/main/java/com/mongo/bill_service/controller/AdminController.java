@@ -0,0 +1,49 @@
+package com.mongo.bill_service.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mongo.bill_service.services.LedgerService;
+import com.mongo.bill_service.services.RollupService;
+import com.mongo.bill_service.services.SplitCache;
+import com.mongo.bill_service.services.SplitRecomputeService;
+
+@RestController
+public class AdminController {
+
+	@Autowired
+	SplitCache splitCache;
+
+	@Autowired
+	SplitRecomputeService splitRecomputeService;
+
+	@Autowired
+	LedgerService ledgerService;
+
+	@Autowired
+	RollupService rollupService;
+
+	@GetMapping(path = "/admin/cache/split")
+	public Map<String, Object> splitCacheStats() {
+		return splitCache.stats();
+	}
+
+	@PostMapping(path = "/admin/splits/recompute")
+	public Map<String, Long> recomputeSplits() throws InterruptedException {
+		return splitRecomputeService.recompute();
+	}
+
+	@PostMapping(path = "/admin/ledger/rebuild")
+	public Map<String, Long> rebuildLedger() {
+		return Map.of("bills", ledgerService.rebuild());
+	}
+
+	@PostMapping(path = "/admin/rollups/rebuild")
+	public Map<String, Long> rebuildRollups() {
+		return Map.of("bills", rollupService.rebuild());
+	}
+}
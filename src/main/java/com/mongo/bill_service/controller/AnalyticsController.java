@@ -0,0 +1,54 @@
+package com.mongo.bill_service.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mongo.bill_service.documents.Rollup;
+import com.mongo.bill_service.documents.Rollup.Kinds;
+import com.mongo.bill_service.exception.BillException;
+import com.mongo.bill_service.services.RollupService;
+
+// Read from the monthly rollups only; from and to are yyyy-MM months, both inclusive
+@RestController
+public class AnalyticsController {
+
+	@Autowired
+	RollupService rollupService;
+
+	@GetMapping(path = "/analytics/stores")
+	public List<Rollup> stores(@RequestParam(required = false) YearMonth from,
+			@RequestParam(required = false) YearMonth to) {
+		return find(Kinds.STORE, null, from, to);
+	}
+
+	@GetMapping(path = "/analytics/stores/{name}")
+	public List<Rollup> store(@PathVariable String name, @RequestParam(required = false) YearMonth from,
+			@RequestParam(required = false) YearMonth to) {
+		return find(Kinds.STORE, name, from, to);
+	}
+
+	@GetMapping(path = "/analytics/participants")
+	public List<Rollup> participants(@RequestParam(required = false) YearMonth from,
+			@RequestParam(required = false) YearMonth to) {
+		return find(Kinds.PARTICIPANT, null, from, to);
+	}
+
+	@GetMapping(path = "/analytics/participants/{name}")
+	public List<Rollup> participant(@PathVariable String name, @RequestParam(required = false) YearMonth from,
+			@RequestParam(required = false) YearMonth to) {
+		return find(Kinds.PARTICIPANT, name, from, to);
+	}
+
+	private List<Rollup> find(Kinds kind, String name, YearMonth from, YearMonth to) {
+		if (from != null && to != null && to.isBefore(from)) {
+			throw new BillException("ERRO4", "Invalid period: 'to' must not be before 'from'.");
+		}
+		return rollupService.find(kind, name, from, to);
+	}
+}
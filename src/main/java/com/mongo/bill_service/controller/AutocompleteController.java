@@ -0,0 +1,38 @@
+package com.mongo.bill_service.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mongo.bill_service.services.AutocompleteService;
+
+// Answered from memory, Mongo is not queried
+@RestController
+public class AutocompleteController {
+
+	private static final int DEFAULT_LIMIT = 10;
+
+	private static final int MAX_LIMIT = 100;
+
+	@Autowired
+	AutocompleteService autocompleteService;
+
+	@GetMapping(path = "/autocomplete/stores")
+	public List<String> stores(@RequestParam(defaultValue = "") String prefix,
+			@RequestParam(required = false) Integer limit) {
+		return autocompleteService.stores(prefix, limit(limit));
+	}
+
+	@GetMapping(path = "/autocomplete/items")
+	public List<String> items(@RequestParam(defaultValue = "") String prefix,
+			@RequestParam(required = false) Integer limit) {
+		return autocompleteService.items(prefix, limit(limit));
+	}
+
+	private static int limit(Integer limit) {
+		return limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+	}
+}
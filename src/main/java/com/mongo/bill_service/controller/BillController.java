@@ -1,40 +1,34 @@
 package com.mongo.bill_service.controller;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 import org.apache.poi.ss.usermodel.Row;
+import org.bson.Document;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.WorkbookUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -42,27 +36,60 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongo.bill_service.consts.Consts;
 import com.mongo.bill_service.documents.BillDetails;
 import com.mongo.bill_service.documents.Item;
 import com.mongo.bill_service.documents.MyFile;
-import com.mongo.bill_service.documents.PriceBreakdown;
+import com.mongo.bill_service.entities.BillCursor;
+import com.mongo.bill_service.entities.BillSummary;
+import com.mongo.bill_service.entities.BulkResult;
+import com.mongo.bill_service.entities.ItemChange;
 import com.mongo.bill_service.entities.ItemResponse;
 import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.entities.SplitResponse;
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.excel.ExcelStyles;
+import com.mongo.bill_service.excel.ExcelWorkbooks;
+import com.mongo.bill_service.excel.SheetWriter;
 import com.mongo.bill_service.exception.BillException;
+import com.mongo.bill_service.money.Money;
 import com.mongo.bill_service.repos.BillRepository;
 import com.mongo.bill_service.repos.FileRepository;
 import com.mongo.bill_service.repos.SequenceRepository;
-import com.mongo.bill_service.serializers.DoubleRoundOffSerializer;
-
+import com.mongo.bill_service.services.BillIngestService;
+import com.mongo.bill_service.services.BillItemService;
+import com.mongo.bill_service.services.BillSaveService;
+import com.mongo.bill_service.services.BillService;
+import com.mongo.bill_service.services.FileStorageService;
+import com.mongo.bill_service.services.SplitCache;
+import com.mongo.bill_service.services.SplitPageService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @RestController
 public class BillController {
 
+	private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+	private static final int STREAM_FLUSH_EVERY = 200;
+
+	// The split page with no splits, rendered once
+	private static final String ROOT_PAGE = new String(
+			SplitPageService.render(new SplitResponse(List.of(), 0), Map.of()), StandardCharsets.UTF_8);
+
 	@Autowired
 	BillRepository billRepository;
 
@@ -75,25 +102,179 @@ public class BillController {
 	@Autowired
 	SequenceRepository sequenceRepository;
 
+	@Autowired
+	BillService billService;
+
+	@Autowired
+	BillIngestService billIngestService;
+
+	@Autowired
+	BillItemService billItemService;
+
+	@Autowired
+	BillSaveService billSaveService;
+
+	@Autowired
+	FileStorageService fileStorageService;
+
+	@Autowired
+	SplitCache splitCache;
+
+	@Autowired
+	SplitPageService splitPageService;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${bill.page.default-size}")
+	int defaultPageSize;
+
+	@Value("${bill.page.max-size}")
+	int maxPageSize;
+
 	@GetMapping(path = "/", produces = MediaType.TEXT_HTML_VALUE)
 	public String root() {
-		return Consts.welcomeHTML;
+		return ROOT_PAGE;
 	}
 
 	@GetMapping(path = "/bills")
-	public List<BillDetails> find() {
-		return billRepository.findAll().stream().sorted((o1, o2) -> {
-			int res = LocalDate.parse(o2.getBillDate(), Consts.DATE_FORMATTER)
-					.compareTo(LocalDate.parse(o1.getBillDate(), Consts.DATE_FORMATTER));
-			
-			res = res == 0 ? LocalTime.parse(o2.getTime(), Consts.TIME_FORMATTER)
-					.compareTo(LocalTime.parse(o1.getTime(), Consts.TIME_FORMATTER)) : res;
-			return res;
-		}).toList();
+	public ResponseEntity<List<BillDetails>> find(
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate to,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "desc") String sort,
+			@RequestParam(required = false) Integer limit) {
+
+		Sort.Direction direction = Sort.Direction.fromOptionalString(sort).orElseThrow(
+				() -> new BillException("ERRO3", "Invalid sort: Supported values are 'asc' and 'desc'."));
+		int pageSize = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+		// Fetch one extra bill to know whether another page exists
+		List<BillDetails> bills = billRepository.findPage(from == null ? null : from.atStartOfDay(),
+				to == null ? null : to.plusDays(1).atStartOfDay(), cursor == null ? null : BillCursor.decode(cursor),
+				direction, pageSize + 1);
+
+		return page(bills, pageSize, Function.identity());
+	}
+
+	// Same bills and paging as /bills with only the requested fields read from Mongo, so items and
+	// extraPrices are neither sent by the server nor decoded here
+	@GetMapping(path = "/bills/summary")
+	public ResponseEntity<List<BillSummary>> findSummaries(
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate to,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "desc") String sort,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) List<String> fields) {
+
+		Sort.Direction direction = Sort.Direction.fromOptionalString(sort).orElseThrow(
+				() -> new BillException("ERRO3", "Invalid sort: Supported values are 'asc' and 'desc'."));
+		int pageSize = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+		List<String> selected = summaryFields(fields);
+
+		List<BillDetails> bills = billRepository.findPage(from == null ? null : from.atStartOfDay(),
+				to == null ? null : to.plusDays(1).atStartOfDay(), cursor == null ? null : BillCursor.decode(cursor),
+				direction, pageSize + 1, selected.stream().map(BillSummary.FIELDS::get).toList());
+
+		return page(bills, pageSize, t -> BillSummary.of(t, selected));
+	}
+
+	// Bills whose store, bill number or item names contain the words in q, best matches first. Not
+	// paged: the order is by relevance, so there is no cursor to continue from.
+	@GetMapping(path = "/bills/search")
+	public List<BillSummary> search(@RequestParam String q, @RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) List<String> fields) {
+
+		int pageSize = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+		List<String> selected = summaryFields(fields);
+		if (q.isBlank()) {
+			return List.of();
+		}
+
+		return billRepository.search(q, pageSize, selected.stream().map(BillSummary.FIELDS::get).toList())
+				.stream().map(t -> BillSummary.of(t, selected)).toList();
+	}
+
+	private static List<String> summaryFields(List<String> fields) {
+		List<String> selected = fields == null || fields.isEmpty() ? BillSummary.DEFAULT_FIELDS
+				: fields.stream().map(String::trim).distinct().toList();
+		if (!BillSummary.FIELDS.keySet().containsAll(selected)) {
+			throw new BillException("ERRO8",
+					"Invalid fields: Supported values are " + new TreeSet<String>(BillSummary.FIELDS.keySet()) + ".");
+		}
+		return selected;
+	}
+
+	// Weak for JSON, which Tomcat only compresses when the ETag is weak; the workbook is never compressed
+	private static String versionETag(long version, boolean weak) {
+		return (weak ? "W/\"" : "\"") + version + "\"";
+	}
+
+	// Bills holds one more than the page when another page follows; its cursor goes in the header
+	private static <T> ResponseEntity<List<T>> page(List<BillDetails> bills, int pageSize,
+			Function<BillDetails, T> mapper) {
+
+		if (bills.size() <= pageSize) {
+			return ResponseEntity.ok(bills.stream().map(mapper).toList());
+		}
+
+		bills = bills.subList(0, pageSize);
+		BillDetails last = bills.get(pageSize - 1);
+		return ResponseEntity.ok()
+				.header(Consts.NEXT_CURSOR_HEADER, new BillCursor(last.getBillTimestamp(), last.getBillId()).encode())
+				.body(bills.stream().map(mapper).toList());
+	}
+
+	// NDJSON variant of /bills: every matching bill, written as it comes off the Mongo cursor. The
+	// cursor fetches its next batch only once the previous one was written, and writes block while
+	// the client is behind, so a slow reader holds back the query instead of filling the heap.
+	@GetMapping(path = "/bills", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamBills(
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate to,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "desc") String sort,
+			@RequestParam(required = false) Integer limit) {
+
+		Sort.Direction direction = Sort.Direction.fromOptionalString(sort).orElseThrow(
+				() -> new BillException("ERRO3", "Invalid sort: Supported values are 'asc' and 'desc'."));
+		BillCursor after = cursor == null ? null : BillCursor.decode(cursor);
+
+		StreamingResponseBody body = out -> {
+			try (Stream<BillDetails> bills = billRepository.streamPage(from == null ? null : from.atStartOfDay(),
+					to == null ? null : to.plusDays(1).atStartOfDay(), after, direction, limit);
+					JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+				int written = 0;
+				for (BillDetails bill : (Iterable<BillDetails>) bills::iterator) {
+					objectMapper.writeValue(generator, bill);
+					generator.writeRaw('\n');
+
+					// First bill at once, then a flush per cursor batch
+					if (written++ % STREAM_FLUSH_EVERY == 0) {
+						generator.flush();
+					}
+				}
+			}
+		};
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
 	}
 
+	// Conditional GETs below compare If-None-Match with the bill version, read with a projection before
+	// anything else. A save after that read only leaves the ETag older than the body, never newer.
 	@GetMapping(path = "/bill/{billId}")
-	public BillDetails getBillById(@PathVariable Integer billId) {
+	public BillDetails getBillById(@PathVariable Integer billId, WebRequest request) {
+
+		Long version = billRepository.findVersion(billId);
+		if (version != null && request.checkNotModified(versionETag(version, true))) {
+			return null;
+		}
+		return getBillById(billId);
+	}
+
+	public BillDetails getBillById(Integer billId) {
 
 		BillDetails billDetails = billRepository.findById(billId).get();
 		String dateStr = billDetails.getBillDate();
@@ -106,15 +287,37 @@ public class BillController {
 	@DeleteMapping(path = "/bill/{billId}")
 	public boolean deleteBillById(@PathVariable Integer billId) {
 		try {
-			billRepository.deleteById(billId);
+			// findAndRemove returns the deleted bill for the ledger but raises no delete events
+			BillDetails removed = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(billId)),
+					BillDetails.class);
+			if (removed != null) {
+				splitCache.evict(billId);
+				eventPublisher.publishEvent(BillChangedEvent.deleted(this, removed));
+			}
 			return true;
 		} catch (Exception e) {
-			System.out.println("Invalid Bill Id");
+			log.warn("Could not delete bill {}", billId, e);
 		}
 
 		return false;
 	}
 
+	@PostMapping(path = "/bill/{billId}/item")
+	public ItemChange addItem(@PathVariable Integer billId, @RequestBody Item item) {
+		return billItemService.add(billId, item);
+	}
+
+	@PutMapping(path = "/bill/{billId}/item/{itemId}")
+	public ItemChange updateItem(@PathVariable Integer billId, @PathVariable Integer itemId,
+			@RequestBody Item item) {
+		return billItemService.update(billId, itemId, item);
+	}
+
+	@DeleteMapping(path = "/bill/{billId}/item/{itemId}")
+	public ItemChange deleteItem(@PathVariable Integer billId, @PathVariable Integer itemId) {
+		return billItemService.remove(billId, itemId);
+	}
+
 	@GetMapping(path = "/bill/{billId}/items")
 	public List<ItemResponse> items(@PathVariable Integer billId) {
 
@@ -129,16 +332,18 @@ public class BillController {
 	@GetMapping(path = "/bill/{billId}/person/{person}/items")
 	public List<Item> items(@PathVariable Integer billId, @PathVariable String person) {
 
+		// Exact match on the participant key inside the bill's own items array, no unwind
+		Document personItems = new Document("$filter", new Document("input", "$items").append("as", "item")
+				.append("cond", new Document("$in", List.of(Consts.participantKey(person),
+						new Document("$ifNull", List.of("$$item.participantKeys", List.of()))))));
+
 		Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(Criteria.where("_id").is(billId)),
-				Aggregation.unwind("items"),
-				Aggregation.match(Criteria.where("items.participants")
-						.regex(Pattern.compile("^" + person + "$", Pattern.CASE_INSENSITIVE))),
-				Aggregation.project("items._id", "items.name", "items.quantity", "items.rate", "items.value",
-						"items.participants"));
+				context -> new Document("$project", new Document("_id", 0).append("items", personItems)));
 
-		AggregationResults<Item> result = mongoTemplate.aggregate(aggregation, "billRepo", Item.class);
+		ItemResponse result = mongoTemplate.aggregate(aggregation, "billRepo", ItemResponse.class)
+				.getUniqueMappedResult();
 
-		return result.getMappedResults();
+		return result == null ? List.of() : result.getItems();
 	}
 
 	@GetMapping(path = "/bill/{billId}/item/{itemId}")
@@ -155,499 +360,303 @@ public class BillController {
 	}
 
 	@GetMapping(path = "/bill/{billId}/split")
-	public List<Split> split(@PathVariable("billId") Integer id) {
-
-		BillDetails bill = billRepository.findById(id).get();
+	public List<Split> split(@PathVariable("billId") Integer id, WebRequest request) {
 
-		// Calculate Original Split
-		Map<String, Split> split = new HashMap<String, Split>();
-		for (Item item : bill.getItems()) {
-			int totalP = item.getParticipants().size();
-			for (String participant : item.getParticipants()) {
-				double newValue = (item.getValue() * 1.0) / totalP;
-				newValue = DoubleRoundOffSerializer.roundDouble(newValue);
-
-				Split sp = new Split(participant, newValue, 1);
-				split.merge(participant, sp, BillController::mergeSplit);
-			}
+		Long version = billRepository.findVersion(id);
+		if (version != null && request.checkNotModified(versionETag(version, true))) {
+			return null;
 		}
+		return splitCache.get(id, version);
+	}
 
-		if (!bill.getExtraPrices().isEmpty()) {
-
-			// Calculate Participant percentage split distribution
-			double totalSum = split.values().stream().map(t -> t.getSplit()).mapToDouble(Double::valueOf).sum();
-			Map<String, Double> perDistOfSplit = new HashMap<String, Double>();
-
-			for (Entry<String, Split> entry : split.entrySet()) {
-				perDistOfSplit.put(entry.getKey(), (entry.getValue().getSplit() / totalSum) * 100D);
-			}
-
-			// Calculate Revised Split
-			// System.out.println(perDistOfSplit);
-			for (Entry<String, Double> currDist : perDistOfSplit.entrySet()) {
-
-				double currPartiSplit = split.get(currDist.getKey()).getSplit();
-				// Process sum with the extra charges
-
-				for (PriceBreakdown currCharge : bill.getExtraPrices()) {
-					PriceBreakdown.Types chargeType = currCharge.getType();
-
-					double updatedByDist = (currCharge.getValue() * (currDist.getValue() / 100D));
+	@GetMapping(path = "/bill/{billId}/split.html", produces = MediaType.TEXT_HTML_VALUE)
+	public ResponseEntity<byte[]> splitPage(@PathVariable Integer billId, WebRequest request) {
 
-					switch (chargeType) {
-					case DISCOUNT:
-						currPartiSplit -= updatedByDist;
-						break;
-					case TAX:
-						currPartiSplit += updatedByDist;
-						break;
-					case EXTRA_CHARGES:
-						currPartiSplit += updatedByDist;
-						break;
-					case CASHBACK:
-						currPartiSplit -= updatedByDist;
-						break;
-					default:
-						System.out.println("Invalid charge type");
-						break;
-					}
-				}
-				split.get(currDist.getKey()).setSplit(DoubleRoundOffSerializer.roundDouble(currPartiSplit));
-			}
+		Long version = billRepository.findVersion(billId);
+		if (version != null && request.checkNotModified(versionETag(version, true))) {
+			return null;
 		}
-
-		return new ArrayList<Split>(split.values());
+		return ResponseEntity.ok().contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+				.body(splitPageService.page(billId, version));
 	}
 
 	@PostMapping(path = "/bill/save")
-	public BillDetails save(@RequestBody BillDetails searchRequest) {
-
-		BillDetails result = null;
-		try {
-
-			// Process sum
-			double sum = searchRequest.getItems().stream().map(t -> String.valueOf(t.getValue()))
-					.mapToDouble(Double::valueOf).sum();
-
-			// Process total quantity
-			int quant = searchRequest.getItems().stream().map(t -> String.valueOf(t.getQuantity()))
-					.mapToInt(Integer::valueOf).sum();
-
-			// Process participants
-			Set<String> participants = searchRequest.getItems().stream().map(t -> t.getParticipants())
-					.flatMap(t -> t.stream()).distinct().collect(Collectors.toSet());
-
-			// Process sum with the extra charges
-			for (PriceBreakdown currCharge : searchRequest.getExtraPrices()) {
-				PriceBreakdown.Types chargeType = currCharge.getType();
-
-				switch (chargeType) {
-				case DISCOUNT:
-					sum -= currCharge.getValue();
-					break;
-				case TAX:
-					sum += currCharge.getValue();
-					break;
-				case EXTRA_CHARGES:
-					sum += currCharge.getValue();
-					break;
-				case CASHBACK:
-					sum -= currCharge.getValue();
-					break;
-				default:
-					System.out.println("Invalid charge type");
-					break;
-				}
-
-			}
-
-			int totalItems = searchRequest.getItems().size();
-			searchRequest.setParticipants(participants);
-			searchRequest.setTotalValue(sum);
-			searchRequest.setTotalQuantity(quant);
-			searchRequest.setTotalItems(totalItems);
-
-			String billDateReq = searchRequest.getBillDate();
-			LocalDate dateReq = LocalDate.parse(billDateReq, Consts.DATE_FORMATTER);
-			searchRequest.setBillDate(dateReq.format(Consts.DATE_FORMATTER));
-
-			String billTimeReq = searchRequest.getTime();
-			LocalTime timeReq = LocalTime.parse(billTimeReq, Consts.TIME_FORMATTER);
-			searchRequest.setTime(timeReq.format(Consts.TIME_FORMATTER));
-
-			result = billRepository.save(searchRequest);
-			
-		} catch (Exception e) {
-			throw new BillException("ERRO1",
-					"Invalid bill format: Missing or incorrect attributes. Please review and resubmit.");
-		}
+	public BillDetails save(@RequestBody BillDetails searchRequest,
+			@RequestParam(defaultValue = "false") boolean merge,
+			@RequestHeader(name = Consts.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+		return billSaveService.save(searchRequest, merge, idempotencyKey);
+	}
 
-		return result;
+	@PostMapping(path = "/bills/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE,
+			MediaType.APPLICATION_NDJSON_VALUE })
+	public List<BulkResult> bulkSave(HttpServletRequest request) throws IOException {
+		return billIngestService.ingest(request.getInputStream());
 	}
 
 	@PostMapping("/file/upload")
 	public void uploadFile(@RequestParam(value = "file") MultipartFile fileToUpload) {
 
 		try {
-			MyFile file = new MyFile();
-			file.setFileName(fileToUpload.getOriginalFilename());
-			file.setContentType(fileToUpload.getContentType());
-			file.setContentLength(fileToUpload.getBytes().length);
-			file.setData(fileToUpload.getBytes());
-
-			fileRepository.save(file);
+			fileStorageService.store(fileToUpload);
 		} catch (Exception e) {
-			System.out.println(e);
+			log.error("Could not store upload {}", fileToUpload.getOriginalFilename(), e);
 		}
 	}
 
 	@GetMapping("/file/{fileId}/download")
-	public ResponseEntity<ByteArrayResource> downloadFile(@PathVariable Integer fileId) {
-
-		MyFile downFile = null;
+	public ResponseEntity<StreamingResponseBody> downloadFile(@PathVariable Integer fileId,
+			@RequestHeader HttpHeaders requestHeaders) {
 
 		Optional<MyFile> file = fileRepository.findById(fileId);
-		downFile = file.isPresent() ? file.get() : null;
+		if (file.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
 
-		if (downFile != null) {
-			ByteArrayResource resource = new ByteArrayResource(downFile.getData());
+		MyFile downFile = file.get();
+		long length = downFile.getContentLength();
 
-			return ResponseEntity.status(HttpStatus.OK)
-					.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + downFile.getFileName())
-					.contentType(MediaType.valueOf(downFile.getContentType()))
-					.contentLength(downFile.getContentLength()).body(resource);
+		// A single byte range resumes a download; multiple ranges are answered with the whole file
+		List<HttpRange> ranges;
+		try {
+			ranges = requestHeaders.getRange();
+		} catch (IllegalArgumentException e) {
+			ranges = List.of();
 		}
 
-		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ByteArrayResource(null));
-	}
+		long start = 0;
+		long end = length - 1;
+		if (ranges.size() == 1) {
+			start = ranges.get(0).getRangeStart(length);
+			end = ranges.get(0).getRangeEnd(length);
+			if (start >= length || end < start) {
+				return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+						.header(HttpHeaders.CONTENT_RANGE, "bytes */" + length).build();
+			}
+		}
 
-	@GetMapping(path = "/bill/{billId}/download")
-	public ResponseEntity<ByteArrayResource> downloadFormattedExcel(@PathVariable Integer billId) {
+		ResponseEntity.BodyBuilder response = ResponseEntity
+				.status(ranges.size() == 1 ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + downFile.getFileName())
+				.header(HttpHeaders.ACCEPT_RANGES, "bytes").contentType(MediaType.valueOf(downFile.getContentType()));
+		if (ranges.size() == 1) {
+			response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		}
 
-		BillDetails billDetails = getBillById(billId);
+		long offset = start;
+		long count = end - start + 1;
+		return response.contentLength(count).body(out -> {
+			try (InputStream in = fileStorageService.open(downFile)) {
+				in.skipNBytes(offset);
+				byte[] buffer = new byte[FILE_BUFFER_SIZE];
+				long remaining = count;
+				while (remaining > 0) {
+					int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+					if (read < 0) {
+						break;
+					}
+					out.write(buffer, 0, read);
+					remaining -= read;
+				}
+			}
+		});
+	}
 
-		try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-			Sheet sheet = workbook.createSheet("Bill Details");
-
-			CellStyle headerStyle = workbook.createCellStyle();
-			Font headerFont = workbook.createFont();
-			headerFont.setBold(true);
-			headerFont.setColor(IndexedColors.WHITE.getIndex());
-			headerStyle.setFont(headerFont);
-			headerStyle.setFillForegroundColor(IndexedColors.TEAL.getIndex());
-			headerStyle.setFillBackgroundColor(IndexedColors.WHITE.getIndex());
-			headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-			headerStyle.setAlignment(HorizontalAlignment.CENTER);
-			headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-			CellStyle borderStyle = workbook.createCellStyle();
-			borderStyle.setBorderTop(BorderStyle.THIN);
-			borderStyle.setBorderBottom(BorderStyle.THIN);
-			borderStyle.setBorderLeft(BorderStyle.THIN);
-			borderStyle.setBorderRight(BorderStyle.THIN);
-			borderStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-			CellStyle boldStyle = workbook.createCellStyle();
-			Font boldFont = workbook.createFont();
-			boldFont.setBold(true);
-			boldStyle.setFont(boldFont);
-
-			int rowNum = 0;
-			Row row = sheet.createRow(rowNum++);
-			row.createCell(0).setCellValue("Bill Summary");
-			row.getCell(0).setCellStyle(boldStyle);
-
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Bill Id: " + billDetails.getBillId());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Store: " + billDetails.getStore());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Address: " + billDetails.getAddress());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Phone: " + billDetails.getPhone());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Bill Number: " + billDetails.getBillNumber());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Bill Date: " + billDetails.getBillDate());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Time: " + billDetails.getTime());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Cashier: " + billDetails.getCashier());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Paid By: " + billDetails.getPaidBy());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Total Items: " + billDetails.getTotalItems());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Total Quantity: " + billDetails.getTotalQuantity());
-			sheet.createRow(rowNum++).createCell(0).setCellValue("Total Value: " + billDetails.getTotalValue());
-
-			sheet.createRow(rowNum++).createCell(0)
-					.setCellValue("Participants: " + String.join(", ", billDetails.getParticipants()));
-
-			rowNum++;
-
-			row = sheet.createRow(rowNum++);
-			String[] headers = { "Item ID", "Name", "Quantity", "Rate", "Value", "Participants" };
-			for (int i = 0; i < headers.length; i++) {
-				Cell cell = row.createCell(i);
-				cell.setCellValue(headers[i]);
-				cell.setCellStyle(headerStyle);
+	@GetMapping(path = "/bill/{billId}/download")
+	public ResponseEntity<StreamingResponseBody> downloadFormattedExcel(@PathVariable Integer billId,
+			WebRequest request) {
+
+		// Only a conditional download is worth the version read up front; a plain one takes its ETag from
+		// the bill it exports
+		boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+		if (conditional) {
+			Long version = billRepository.findVersion(billId);
+			if (version != null && request.checkNotModified(versionETag(version, false))) {
+				return null;
 			}
+		}
 
-			for (Item item : billDetails.getItems()) {
-				int i = 0;
-				row = sheet.createRow(rowNum++);
+		// Everything in the workbook is derived from this one read
+		BillDetails billDetails = getBillById(billId);
+		if (!conditional) {
+			request.checkNotModified(versionETag(billDetails.getVersion(), false));
+		}
+		List<Split> splits = splitCache.get(billDetails);
+		Map<String, List<Item>> personItems = billService.itemsByParticipant(billDetails);
 
-				Cell cell0 = row.createCell(i++);
-				cell0.setCellValue(item.getItemId());
-				cell0.setCellStyle(borderStyle);
+		return ExcelWorkbooks.download("BILL", workbook -> {
+			ExcelStyles styles = new ExcelStyles(workbook);
 
-				Cell cell1 = row.createCell(i++);
-				cell1.setCellValue(item.getName());
-				cell1.setCellStyle(borderStyle);
+			addSummarySheet(workbook, styles, billDetails);
+			addSheetForSplits(workbook, styles, "Splits", splits);
+			for (Entry<String, List<Item>> person : personItems.entrySet()) {
+				addSheet(workbook, styles, person.getKey(), person.getValue(), false);
+			}
+		});
+	}
 
-				Cell cell2 = row.createCell(i++);
-				cell2.setCellValue(item.getQuantity());
-				cell2.setCellStyle(borderStyle);
+	public static Sheet addSummarySheet(Workbook workbook, ExcelStyles styles, BillDetails billDetails) {
 
-				Cell cell3 = row.createCell(i++);
-				cell3.setCellValue(item.getRate());
-				cell3.setCellStyle(borderStyle);
+		String[] headers = { "Item ID", "Name", "Quantity", "Rate", "Value", "Participants" };
+		SheetWriter sheet = new SheetWriter(workbook.createSheet("Bill Details"), headers.length);
 
-				Cell cell4 = row.createCell(i++);
-				cell4.setCellValue(item.getValue());
-				cell4.setCellStyle(borderStyle);
+		int rowNum = 0;
+		Row row = sheet.row(rowNum++);
+		sheet.cell(row, 0, "Bill Summary", styles.getBold());
 
-				Cell cell5 = row.createCell(i++);
-				cell5.setCellValue(String.join(", ", item.getParticipants()));
-				cell5.setCellStyle(borderStyle);
-			}
+		sheet.cell(sheet.row(rowNum++), 0, "Bill Id: " + billDetails.getBillId(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Store: " + billDetails.getStore(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Address: " + billDetails.getAddress(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Phone: " + billDetails.getPhone(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Bill Number: " + billDetails.getBillNumber(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Bill Date: " + billDetails.getBillDate(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Time: " + billDetails.getTime(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Cashier: " + billDetails.getCashier(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Paid By: " + billDetails.getPaidBy(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Total Items: " + billDetails.getTotalItems(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Total Quantity: " + billDetails.getTotalQuantity(), null);
+		sheet.cell(sheet.row(rowNum++), 0, "Total Value: " + Money.format(billDetails.getTotalValue()), null);
 
-			for (int j = 0; j < headers.length; j++) {
-				sheet.autoSizeColumn(j);
-			}
+		sheet.cell(sheet.row(rowNum++), 0, "Participants: " + String.join(", ",
+				BillService.participantNames(billDetails).values()), null);
 
-			addSheetForSplits(workbook, "Splits", split(billId));
-			for (String person : billDetails.getParticipants()) {
-				addSheet(workbook, person, items(billId, person), false);
-			}
+		rowNum++;
 
-			workbook.write(out);
+		row = sheet.row(rowNum++);
+		for (int i = 0; i < headers.length; i++) {
+			sheet.cell(row, i, headers[i], styles.getHeader());
+		}
 
-			byte[] data = out.toByteArray();
-			ByteArrayResource resource = new ByteArrayResource(data);
+		for (Item item : billDetails.getItems()) {
+			int i = 0;
+			row = sheet.row(rowNum++);
 
-			DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-			String timestamp = LocalDateTime.now().format(formatter);
-			String fileName = "BILL_" + timestamp + ".xlsx";
-			return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-					.contentType(MediaType.APPLICATION_OCTET_STREAM).contentLength(data.length).body(resource);
-		} catch (IOException e) {
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+			sheet.cell(row, i++, item.getItemId(), styles.getBorder());
+			sheet.cell(row, i++, item.getName(), styles.getBorder());
+			sheet.cell(row, i++, item.getQuantity(), styles.getBorder());
+			sheet.money(row, i++, item.getRate(), styles.getBorder());
+			sheet.money(row, i++, item.getValue(), styles.getBorder());
+			sheet.cell(row, i++, String.join(", ", item.getParticipants()), styles.getBorder());
 		}
+
+		return sheet.finish();
 	}
 
-	public static Sheet addSheet(Workbook workbook, String sheetName, List<Item> items, boolean forItems) {
-		try {
+	public static Sheet addSheet(Workbook workbook, ExcelStyles styles, String sheetName, List<Item> items,
+			boolean forItems) {
 
-			// Create a sheet
-			Sheet sheet = workbook.createSheet(sheetName);
-
-			// Create header style
-			CellStyle headerStyle = workbook.createCellStyle();
-			Font headerFont = workbook.createFont();
-			headerFont.setBold(true);
-			headerFont.setColor(IndexedColors.WHITE.getIndex());
-			headerStyle.setFont(headerFont);
-			headerStyle.setFillForegroundColor(IndexedColors.TEAL.getIndex());
-			headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-			headerStyle.setAlignment(HorizontalAlignment.CENTER);
-			headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-			// Create border style
-			CellStyle borderStyle = workbook.createCellStyle();
-			borderStyle.setBorderTop(BorderStyle.THIN);
-			borderStyle.setBorderBottom(BorderStyle.THIN);
-			borderStyle.setBorderLeft(BorderStyle.THIN);
-			borderStyle.setBorderRight(BorderStyle.THIN);
-			borderStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-			// Add header row for main table
-			String[] itemHeaders = { "Item ID", "Name", "Quantity", "Rate", "Value", "Participants" };
-			String[] splitHeaders = { "Item ID", "Name", "Quantity", "Rate", "Value", "Your Half", "Participants" };
-
-			String[] headers = forItems ? itemHeaders : splitHeaders;
-
-			Row headerRow = sheet.createRow(3);
-			for (int i = 0; i < headers.length; i++) {
-				Cell cell = headerRow.createCell(i);
-				cell.setCellValue(headers[i]);
-				cell.setCellStyle(headerStyle);
-			}
+		// Add header row for main table
+		String[] itemHeaders = { "Item ID", "Name", "Quantity", "Rate", "Value", "Participants" };
+		String[] splitHeaders = { "Item ID", "Name", "Quantity", "Rate", "Value", "Your Half", "Participants" };
 
-			// Add item data starting from row 3
-			int rowNum = 4;
-			double totalHalf = 0;
-			double totalValue = 0;
-			for (Item item : items) {
-				Row row = sheet.createRow(rowNum++);
+		String[] headers = forItems ? itemHeaders : splitHeaders;
 
-				int colNum = 0;
+		// Create a sheet; its tab may be shortened, the full name goes in the first row
+		SheetWriter sheet = new SheetWriter(workbook.createSheet(sheetName(workbook, sheetName)), headers.length);
 
-				Cell cell1 = row.createCell(colNum++);
-				cell1.setCellValue(item.getItemId());
-				cell1.setCellStyle(borderStyle);
+		// Calculate the total value of all items first, rows are streamed top to bottom
+		long totalHalf = 0;
+		long totalValue = 0;
+		for (Item item : items) {
+			totalValue += item.getValue();
+			if (!forItems) {
+				totalHalf += shareOf(item, sheetName);
+			}
+		}
 
-				Cell cell2 = row.createCell(colNum++);
-				cell2.setCellValue(item.getName());
-				cell2.setCellStyle(borderStyle);
+		long finalTotal = forItems ? totalValue : totalHalf;
 
-				Cell cell3 = row.createCell(colNum++);
-				cell3.setCellValue(item.getQuantity());
-				cell3.setCellStyle(borderStyle);
+		// Add row for Sheet Name
+		Row totalRow1 = sheet.row(0);
+		sheet.cell(totalRow1, 0, "Name: ", styles.getHeader());
+		sheet.cell(totalRow1, 1, sheetName, null);
 
-				Cell cell4 = row.createCell(colNum++);
-				cell4.setCellValue(item.getRate());
-				cell4.setCellStyle(borderStyle);
+		// Add row for Total Value
+		Row totalRow = sheet.row(1);
+		sheet.cell(totalRow, 0, "Total Value: ", styles.getHeader());
+		sheet.cell(totalRow, 1, "₹ " + Money.format(finalTotal), null);
 
-				Cell cell5 = row.createCell(colNum++);
-				cell5.setCellValue(item.getValue());
-				cell5.setCellStyle(borderStyle);
+		Row headerRow = sheet.row(3);
+		for (int i = 0; i < headers.length; i++) {
+			sheet.cell(headerRow, i, headers[i], styles.getHeader());
+		}
 
-				double currHalf = DoubleRoundOffSerializer
-						.roundDouble((item.getValue() / item.getParticipants().size()));
-				totalValue += item.getValue();
-				totalHalf += currHalf;
+		// Add item data starting from row 4
+		int rowNum = 4;
+		for (Item item : items) {
+			Row row = sheet.row(rowNum++);
 
-				if (!forItems) {
-					Cell cell6 = row.createCell(colNum++);
-					cell6.setCellValue(currHalf);
-					cell6.setCellStyle(borderStyle);
-				}
+			int colNum = 0;
 
-				Cell cell7 = row.createCell(colNum++);
-				cell7.setCellValue(String.join(", ", item.getParticipants()));
-				cell7.setCellStyle(borderStyle);
-			}
+			sheet.cell(row, colNum++, item.getItemId(), styles.getBorder());
+			sheet.cell(row, colNum++, item.getName(), styles.getBorder());
+			sheet.cell(row, colNum++, item.getQuantity(), styles.getBorder());
+			sheet.money(row, colNum++, item.getRate(), styles.getBorder());
+			sheet.money(row, colNum++, item.getValue(), styles.getBorder());
 
-			// Calculate the total value of all items
-			double finalTotal = DoubleRoundOffSerializer.roundDouble(forItems ? totalValue : totalHalf);
-
-			// Add row for Sheet Name
-			Row totalRow1 = sheet.createRow(0);
-			Cell totalLabelCell1 = totalRow1.createCell(0);
-			totalLabelCell1.setCellValue("Name: ");
-			totalLabelCell1.setCellStyle(headerStyle);
-			Cell totalValueCell1 = totalRow1.createCell(1);
-			totalValueCell1.setCellValue(sheetName);
-
-			// Add row for Total Value
-			Row totalRow = sheet.createRow(1);
-			Cell totalLabelCell = totalRow.createCell(0);
-			totalLabelCell.setCellValue("Total Value: ");
-			totalLabelCell.setCellStyle(headerStyle);
-			Cell totalValueCell = totalRow.createCell(1);
-			totalValueCell.setCellValue("₹ " + finalTotal);
-
-			// Auto-size columns
-			for (int i = 0; i < headers.length; i++) {
-				sheet.autoSizeColumn(i);
+			if (!forItems) {
+				sheet.money(row, colNum++, shareOf(item, sheetName), styles.getBorder());
 			}
 
-			return sheet;
-
-		} catch (Exception e) {
-			return null;
+			sheet.cell(row, colNum++, String.join(", ", item.getParticipants()), styles.getBorder());
 		}
-	}
-
-	public static Sheet addSheetForSplits(Workbook workbook, String sheetName, List<Split> splits) {
-		try {
-
-			Sheet sheet = workbook.createSheet(sheetName);
-
-			CellStyle headerStyle = workbook.createCellStyle();
-			Font headerFont = workbook.createFont();
-			headerFont.setBold(true);
-			headerFont.setColor(IndexedColors.WHITE.getIndex());
-			headerStyle.setFont(headerFont);
-			headerStyle.setFillForegroundColor(IndexedColors.TEAL.getIndex());
-			headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-			headerStyle.setAlignment(HorizontalAlignment.CENTER);
-			headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-			CellStyle borderStyle = workbook.createCellStyle();
-			borderStyle.setBorderTop(BorderStyle.THIN);
-			borderStyle.setBorderBottom(BorderStyle.THIN);
-			borderStyle.setBorderLeft(BorderStyle.THIN);
-			borderStyle.setBorderRight(BorderStyle.THIN);
-			borderStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-			double totalAmount = splits.stream().map(t -> t.getSplit()).mapToDouble(Double::valueOf).sum();
-			totalAmount = DoubleRoundOffSerializer.roundDouble(totalAmount);
-
-			// Add row for Sheet Name
-			Row totalRow1 = sheet.createRow(0);
-			Cell totalLabelCell1 = totalRow1.createCell(0);
-			totalLabelCell1.setCellValue("Total: ");
-			totalLabelCell1.setCellStyle(headerStyle);
-			Cell totalValueCell1 = totalRow1.createCell(1);
-			totalValueCell1.setCellValue("₹ " + totalAmount);
-
-			String[] headers = { "Name", "Split Amount", "Item Count" };
-			Row headerRow = sheet.createRow(2);
-			for (int i = 0; i < headers.length; i++) {
-				Cell cell = headerRow.createCell(i);
-				cell.setCellValue(headers[i]);
-				cell.setCellStyle(headerStyle);
-			}
 
-			int rowNum = 3;
-			for (Split split : splits) {
-				Row row = sheet.createRow(rowNum++);
+		return sheet.finish();
+	}
 
-				int colNum = 0;
+	// The person's share of the item, with the same leftover paise placement as BillService.split
+	private static long shareOf(Item item, String person) {
+		List<String> keys = BillService.participantKeys(item);
+		int i = keys.indexOf(Consts.participantKey(person));
+		return i < 0 ? 0 : Money.split(item.getValue(), keys.size())[i];
+	}
 
-				Cell cell1 = row.createCell(colNum++);
-				cell1.setCellValue(split.getName());
-				cell1.setCellStyle(borderStyle);
+	public static Sheet addSheetForSplits(Workbook workbook, ExcelStyles styles, String sheetName,
+			List<Split> splits) {
 
-				Cell cell2 = row.createCell(colNum++);
-				cell2.setCellValue(split.getSplit());
-				cell2.setCellStyle(borderStyle);
+		String[] headers = { "Name", "Split Amount", "Item Count" };
+		SheetWriter sheet = new SheetWriter(workbook.createSheet(sheetName(workbook, sheetName)), headers.length);
 
-				Cell cell3 = row.createCell(colNum++);
-				cell3.setCellValue(split.getItemcount());
-				cell3.setCellStyle(borderStyle);
-			}
-
-			for (int i = 0; i < headers.length; i++) {
-				sheet.autoSizeColumn(i);
-			}
+		long totalAmount = splits.stream().mapToLong(Split::getSplit).sum();
 
-			return sheet;
+		// Add row for Sheet Name
+		Row totalRow1 = sheet.row(0);
+		sheet.cell(totalRow1, 0, "Total: ", styles.getHeader());
+		sheet.cell(totalRow1, 1, "₹ " + Money.format(totalAmount), null);
 
-		} catch (Exception e) {
-			return null;
+		Row headerRow = sheet.row(2);
+		for (int i = 0; i < headers.length; i++) {
+			sheet.cell(headerRow, i, headers[i], styles.getHeader());
 		}
-	}
-
-	@PostMapping(path = "/items/download", consumes = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<ByteArrayResource> downloadItemExcel(@RequestBody List<Item> items) {
 
-		try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+		int rowNum = 3;
+		for (Split split : splits) {
+			Row row = sheet.row(rowNum++);
 
-			addSheet(workbook, "ITEMS", items, true);
+			int colNum = 0;
 
-			workbook.write(out);
-
-			byte[] data = out.toByteArray();
-			ByteArrayResource resource = new ByteArrayResource(data);
+			sheet.cell(row, colNum++, split.getName(), styles.getBorder());
+			sheet.money(row, colNum++, split.getSplit(), styles.getBorder());
+			sheet.cell(row, colNum++, split.getItemcount(), styles.getBorder());
+		}
 
-			DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-			String timestamp = LocalDateTime.now().format(formatter);
-			String fileName = "ITEMS_" + timestamp + ".xlsx";
-			return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-					.contentType(MediaType.APPLICATION_OCTET_STREAM).contentLength(data.length).body(resource);
+		return sheet.finish();
+	}
 
-		} catch (IOException e) {
-			return ResponseEntity.status(500).build();
+	// Excel allows 31 characters, no []:*?/\ and no two tabs equal ignoring case, so a name that is
+	// already taken once cut and cleaned up gets a counter
+	private static String sheetName(Workbook workbook, String name) {
+		String safe = WorkbookUtil.createSafeSheetName(name.strip()).strip();
+		String unique = safe;
+		for (int i = 2; workbook.getSheet(unique) != null; i++) {
+			String suffix = " (" + i + ")";
+			unique = safe.substring(0, Math.min(safe.length(), 31 - suffix.length())).strip() + suffix;
 		}
+		return unique;
 	}
 
-	public static Split mergeSplit(Split old, Split latest) {
-		old.setSplit(old.getSplit() + latest.getSplit());
-		old.setItemcount(old.getItemcount() + latest.getItemcount());
-		return old;
+	@PostMapping(path = "/items/download", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> downloadItemExcel(@RequestBody List<Item> items) {
+		return ExcelWorkbooks.download("ITEMS",
+				workbook -> addSheet(workbook, new ExcelStyles(workbook), "ITEMS", items, true));
 	}
 }
\ No newline at end of file
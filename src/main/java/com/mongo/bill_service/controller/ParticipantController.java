@@ -0,0 +1,60 @@
+package com.mongo.bill_service.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.LedgerEntry;
+import com.mongo.bill_service.entities.BillCursor;
+import com.mongo.bill_service.entities.BillRef;
+import com.mongo.bill_service.repos.BillRepository;
+import com.mongo.bill_service.services.LedgerService;
+
+@RestController
+public class ParticipantController {
+
+	@Autowired
+	BillRepository billRepository;
+
+	@Autowired
+	LedgerService ledgerService;
+
+	@Value("${bill.page.default-size}")
+	int defaultPageSize;
+
+	@Value("${bill.page.max-size}")
+	int maxPageSize;
+
+	@GetMapping(path = "/participants/{name}/bills")
+	public ResponseEntity<List<BillRef>> bills(@PathVariable String name,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+
+		int pageSize = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+		// Fetch one extra bill to know whether another page exists
+		List<BillRef> bills = billRepository.findByParticipantKey(Consts.participantKey(name),
+				cursor == null ? null : BillCursor.decode(cursor), pageSize + 1);
+
+		if (bills.size() <= pageSize) {
+			return ResponseEntity.ok(bills);
+		}
+
+		bills = bills.subList(0, pageSize);
+		BillRef last = bills.get(pageSize - 1);
+		return ResponseEntity.ok()
+				.header(Consts.NEXT_CURSOR_HEADER, new BillCursor(last.getBillTimestamp(), last.getBillId()).encode())
+				.body(bills);
+	}
+
+	@GetMapping(path = "/participants/{name}/balance")
+	public LedgerEntry balance(@PathVariable String name) {
+		return ledgerService.balance(name);
+	}
+}
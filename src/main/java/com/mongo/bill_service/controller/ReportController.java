@@ -0,0 +1,35 @@
+package com.mongo.bill_service.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.excel.ExcelWorkbooks;
+import com.mongo.bill_service.exception.BillException;
+import com.mongo.bill_service.services.ReportService;
+
+@RestController
+public class ReportController {
+
+	@Autowired
+	ReportService reportService;
+
+	@GetMapping(path = "/bills/report.xlsx")
+	public ResponseEntity<StreamingResponseBody> report(
+			@RequestParam @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate from,
+			@RequestParam @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate to) {
+
+		if (to.isBefore(from)) {
+			throw new BillException("ERRO4", "Invalid period: 'to' must not be before 'from'.");
+		}
+
+		return ExcelWorkbooks.download("REPORT", workbook -> reportService.writeReport(workbook, from, to));
+	}
+}
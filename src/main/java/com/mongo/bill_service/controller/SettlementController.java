@@ -0,0 +1,39 @@
+package com.mongo.bill_service.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.entities.Settlement;
+import com.mongo.bill_service.exception.BillException;
+import com.mongo.bill_service.services.SettlementService;
+
+@RestController
+public class SettlementController {
+
+	@Autowired
+	SettlementService settlementService;
+
+	@GetMapping(path = "/bills/settlement")
+	public Settlement settlement(@RequestParam(required = false) List<Integer> billIds,
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = Consts.DATE_FORMAT) LocalDate to,
+			@RequestParam(required = false) List<String> participants) {
+
+		if ((billIds == null || billIds.isEmpty()) && from == null && to == null
+				&& (participants == null || participants.isEmpty())) {
+			throw new BillException("ERRO5", "Invalid selection: give billIds, a from/to period or participants.");
+		}
+		if (from != null && to != null && to.isBefore(from)) {
+			throw new BillException("ERRO4", "Invalid period: 'to' must not be before 'from'.");
+		}
+
+		return settlementService.settle(billIds, from, to, participants);
+	}
+}
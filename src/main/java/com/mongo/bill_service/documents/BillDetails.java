@@ -1,5 +1,6 @@
 package com.mongo.bill_service.documents;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -7,19 +8,30 @@ import java.util.Set;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.mongo.bill_service.serializers.DoubleRoundOffSerializer;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.serializers.MoneyDeserializer;
+import com.mongo.bill_service.serializers.MoneySerializer;
 
-import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-@Document(collection = "billRepo")
+// No text language: store and item names are not stemmed or stripped of stop words
+@Document(collection = "billRepo", language = "none")
+@CompoundIndexes({ @CompoundIndex(name = "billTimestamp_id", def = "{'billTimestamp': -1, '_id': -1}"),
+		@CompoundIndex(name = "participantKeys_billTimestamp_id", def = "{'participantKeys': 1, 'billTimestamp': -1, '_id': -1}") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,29 +41,63 @@ public class BillDetails {
 	@Transient
 	public static final String SEQUENCE = "bill-seq";
 
+	@Transient
+	public static final String VERSION_SEQUENCE = "bill-version-seq";
+
 	@Id
 	private int billId = -1;
 
+	// Fresh value from the version sequence on every save, so any change yields a version never seen before.
+	// Sent back with /bill/save, the bill is only replaced while it still has this version.
+	private long version;
+
+	@TextIndexed(weight = 2)
 	private String store;
 	private String address;
 	private String phone;
+	@TextIndexed(weight = 3)
 	private String billNumber;
 	private String billDate;
 	private String time;
+
+	// Native BSON date derived from billDate + time, used for sorting and range queries
+	@JsonProperty(access = Access.READ_ONLY)
+	private LocalDateTime billTimestamp;
+
 	private String cashier;
 	private List<Item> items = new ArrayList<Item>();
 	private List<PriceBreakdown> extraPrices = new ArrayList<PriceBreakdown>();
 	private Set<String> participants = new HashSet<String>();
+
+	// Consts.participantKey of every participant; multikey index behind /participants/{name}/bills
+	@JsonIgnore
+	private Set<String> participantKeys = new HashSet<String>();
 	private String paidBy;
 	private int totalItems;
 	private int totalQuantity;
 
-	@JsonSerialize(using = DoubleRoundOffSerializer.class)
-	@Getter(value = AccessLevel.NONE)
-	private double totalValue;
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	@JsonDeserialize(using = MoneyDeserializer.class)
+	private long totalValue;
+
+	// Per-participant split computed at save time, and the split algorithm version that produced it
+	@JsonProperty(access = Access.READ_ONLY)
+	private List<Split> splits;
+
+	@JsonProperty(access = Access.READ_ONLY)
+	private int splitVersion;
+
+	// Hash of the natural key from BillService.fingerprint, so a receipt submitted twice is stored once.
+	// Missing on bills without a bill number and on bills not saved since it was introduced.
+	@JsonIgnore
+	@Indexed(unique = true, sparse = true)
+	private String fingerprint;
 
-	public double getTotalValue() {
-		return DoubleRoundOffSerializer.roundDouble(totalValue);
-	}
+	// Idempotency-Key of the request that created the bill. Never sent to clients, a replace takes it over
+	// from the stored bill so a retry of that request still finds the bill after it has been edited.
+	@JsonIgnore
+	@Indexed(unique = true, sparse = true)
+	private String idempotencyKey;
 
 }
@@ -5,14 +5,16 @@ import java.util.List;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.mongo.bill_service.serializers.DoubleRoundOffSerializer;
+import com.mongo.bill_service.serializers.MoneyDeserializer;
+import com.mongo.bill_service.serializers.MoneySerializer;
 
-import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
@@ -28,26 +30,28 @@ public class Item {
 	@Id
 	private int itemId = -1;
 
+	@TextIndexed
 	private String name;
 
 	private int quantity;
 
-	@JsonSerialize(using = DoubleRoundOffSerializer.class)
-	@Getter(value = AccessLevel.NONE)
-	private double rate;
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	@JsonDeserialize(using = MoneyDeserializer.class)
+	private long rate;
 
-	@JsonSerialize(using = DoubleRoundOffSerializer.class)
-	@Getter(value = AccessLevel.NONE)
-	private double value;
+	@JsonSerialize(using = MoneySerializer.class)
+	@JsonDeserialize(using = MoneyDeserializer.class)
+	private long value;
 
 	private List<String> participants = new ArrayList<String>();
 
-	public double getRate() {
-		return DoubleRoundOffSerializer.roundDouble(rate);
-	}
+	// Consts.participantKey of each participant, matched by the per-person items query
+	@JsonIgnore
+	private List<String> participantKeys = new ArrayList<String>();
 
-	public double getValue() {
-		return DoubleRoundOffSerializer.roundDouble(value);
+	public Item(int itemId, String name, int quantity, long rate, long value, List<String> participants) {
+		this(itemId, name, quantity, rate, value, participants, new ArrayList<String>());
 	}
 
 }
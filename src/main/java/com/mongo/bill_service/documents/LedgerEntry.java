@@ -0,0 +1,43 @@
+package com.mongo.bill_service.documents;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.mongo.bill_service.serializers.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Running totals of one participant across all bills, keyed by Consts.participantKey
+@Document(collection = "ledgerRepo")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class LedgerEntry {
+
+	@Id
+	private String participantKey;
+
+	private String name;
+
+	private int bills;
+
+	// Paise: sum of the participant's split shares
+	@JsonSerialize(using = MoneySerializer.class)
+	private long owed;
+
+	// Paise: sum of the split shares of bills they paid
+	@JsonSerialize(using = MoneySerializer.class)
+	private long paid;
+
+	// Positive when the others owe them
+	@JsonSerialize(using = MoneySerializer.class)
+	public long getBalance() {
+		return paid - owed;
+	}
+
+}
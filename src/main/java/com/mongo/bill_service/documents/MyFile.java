@@ -23,6 +23,9 @@ public class MyFile {
 	private int fileId;
 	private String fileName;
     private String contentType;
-    private int contentLength;
+    private long contentLength;
+
+    // GridFS id of the contents; null for files stored inline in data
+    private String storageId;
     private byte[] data;
 }
@@ -1,12 +1,12 @@
 package com.mongo.bill_service.documents;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.mongo.bill_service.serializers.DoubleRoundOffSerializer;
+import com.mongo.bill_service.serializers.MoneyDeserializer;
+import com.mongo.bill_service.serializers.MoneySerializer;
 
-import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
@@ -22,14 +22,11 @@ public class PriceBreakdown {
 
 	private String name;
 
-	@JsonSerialize(using = DoubleRoundOffSerializer.class)
-	@Getter(value = AccessLevel.NONE)
-	private double value;
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	@JsonDeserialize(using = MoneyDeserializer.class)
+	private long value;
 
 	private Types type;
-	
-	public double getValue() {
-		return DoubleRoundOffSerializer.roundDouble(value);
-	}
 
 }
@@ -0,0 +1,55 @@
+package com.mongo.bill_service.documents;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.mongo.bill_service.serializers.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Totals of one store or participant over the bills of one month, kept up to date like the ledger
+@Document(collection = "rollupRepo")
+@CompoundIndexes({ @CompoundIndex(name = "kind_month", def = "{'kind': 1, 'month': 1}"),
+		@CompoundIndex(name = "kind_key_month", def = "{'kind': 1, 'key': 1, 'month': 1}") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Rollup {
+
+	public enum Kinds {
+		STORE, PARTICIPANT
+	}
+
+	// kind|month|key
+	@Id
+	@JsonIgnore
+	private String id;
+
+	private Kinds kind;
+
+	// yyyy-MM of the billTimestamp, so months sort and compare as strings
+	private String month;
+
+	// Consts.participantKey of the store or participant name
+	private String key;
+
+	private String name;
+
+	private int bills;
+
+	// Paise: bill totals for a store, split shares for a participant
+	@JsonSerialize(using = MoneySerializer.class)
+	private long amount;
+
+	public static String id(Kinds kind, String month, String key) {
+		return kind + "|" + month + "|" + key;
+	}
+}
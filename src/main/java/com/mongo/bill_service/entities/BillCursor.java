@@ -0,0 +1,41 @@
+package com.mongo.bill_service.entities;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.mongo.bill_service.exception.BillException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BillCursor {
+
+	// Null for bills without a billTimestamp, which sort below every timestamp
+	private LocalDateTime billTimestamp;
+	private int billId;
+
+	// Opaque token handed to clients: base64url("<timestamp>|<billId>"), the timestamp empty when null
+	public String encode() {
+		String raw = (billTimestamp == null ? "" : billTimestamp.toString()) + "|" + billId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static BillCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int sep = raw.lastIndexOf('|');
+			String timestamp = raw.substring(0, sep);
+			return new BillCursor(timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+					Integer.parseInt(raw.substring(sep + 1)));
+		} catch (Exception e) {
+			throw new BillException("ERRO2", "Invalid cursor: Please use the value returned by the previous page.");
+		}
+	}
+}
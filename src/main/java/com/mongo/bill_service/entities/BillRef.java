@@ -0,0 +1,19 @@
+package com.mongo.bill_service.entities;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BillRef {
+
+	private int billId;
+	private LocalDateTime billTimestamp;
+
+}
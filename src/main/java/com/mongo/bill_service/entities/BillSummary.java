@@ -0,0 +1,75 @@
+package com.mongo.bill_service.entities;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.serializers.MoneySerializer;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Row of the bill list views; fields that were not selected stay null and are left out of the JSON
+@Data
+@NoArgsConstructor
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BillSummary {
+
+	// Selectable fields and the bill fields each one is read from
+	public static final Map<String, String> FIELDS = Map.ofEntries(Map.entry("store", "store"),
+			Map.entry("address", "address"), Map.entry("phone", "phone"), Map.entry("billNumber", "billNumber"),
+			Map.entry("billDate", "billDate"), Map.entry("time", "time"), Map.entry("cashier", "cashier"),
+			Map.entry("paidBy", "paidBy"), Map.entry("totalItems", "totalItems"),
+			Map.entry("totalQuantity", "totalQuantity"), Map.entry("totalValue", "totalValue"),
+			Map.entry("participantCount", "participants"));
+
+	public static final List<String> DEFAULT_FIELDS = List.of("store", "billDate", "time", "totalValue",
+			"participantCount");
+
+	private int billId;
+	private String store;
+	private String address;
+	private String phone;
+	private String billNumber;
+	private String billDate;
+	private String time;
+	private String cashier;
+	private String paidBy;
+	private Integer totalItems;
+	private Integer totalQuantity;
+
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	private Long totalValue;
+
+	private Integer participantCount;
+
+	public static BillSummary of(BillDetails bill, Collection<String> fields) {
+		BillSummary summary = new BillSummary();
+		summary.setBillId(bill.getBillId());
+
+		for (String field : fields) {
+			switch (field) {
+			case "store" -> summary.setStore(bill.getStore());
+			case "address" -> summary.setAddress(bill.getAddress());
+			case "phone" -> summary.setPhone(bill.getPhone());
+			case "billNumber" -> summary.setBillNumber(bill.getBillNumber());
+			case "billDate" -> summary.setBillDate(bill.getBillDate());
+			case "time" -> summary.setTime(bill.getTime());
+			case "cashier" -> summary.setCashier(bill.getCashier());
+			case "paidBy" -> summary.setPaidBy(bill.getPaidBy());
+			case "totalItems" -> summary.setTotalItems(bill.getTotalItems());
+			case "totalQuantity" -> summary.setTotalQuantity(bill.getTotalQuantity());
+			case "totalValue" -> summary.setTotalValue(bill.getTotalValue());
+			case "participantCount" -> summary.setParticipantCount(bill.getParticipants().size());
+			default -> throw new IllegalArgumentException(field);
+			}
+		}
+		return summary;
+	}
+}
@@ -0,0 +1,26 @@
+package com.mongo.bill_service.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BulkResult {
+
+	// Position of the bill in the request body
+	private int index;
+
+	private Integer billId;
+
+	private boolean success;
+
+	private String error;
+
+	public static BulkResult failed(int index, String error) {
+		return new BulkResult(index, null, false, error);
+	}
+}
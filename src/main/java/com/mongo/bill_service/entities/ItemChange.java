@@ -0,0 +1,34 @@
+package com.mongo.bill_service.entities;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.serializers.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Answer to an item change: the item as stored, null once removed, and the bill totals after it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ItemChange {
+
+	private int billId;
+	private long version;
+	private Item item;
+	private int totalItems;
+	private int totalQuantity;
+
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	private long totalValue;
+
+	public static ItemChange of(BillDetails bill, Item item) {
+		return new ItemChange(bill.getBillId(), bill.getVersion(), item, bill.getTotalItems(),
+				bill.getTotalQuantity(), bill.getTotalValue());
+	}
+}
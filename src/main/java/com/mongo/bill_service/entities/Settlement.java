@@ -0,0 +1,23 @@
+package com.mongo.bill_service.entities;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Settlement {
+
+	private long bills;
+
+	// Bills without a payer, they have nobody to pay back
+	private long skipped;
+
+	private List<Transfer> transfers;
+
+}
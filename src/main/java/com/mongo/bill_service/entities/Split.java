@@ -1,7 +1,9 @@
 package com.mongo.bill_service.entities;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.mongo.bill_service.serializers.DoubleRoundOffSerializer;
+import com.mongo.bill_service.serializers.MoneyDeserializer;
+import com.mongo.bill_service.serializers.MoneySerializer;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,8 +18,10 @@ public class Split {
 
 	private String name;
 	
-	@JsonSerialize(using = DoubleRoundOffSerializer.class)
-	private double split;
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	@JsonDeserialize(using = MoneyDeserializer.class)
+	private long split;
 	
 	private int itemcount;
 	
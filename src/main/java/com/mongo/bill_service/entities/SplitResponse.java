@@ -2,8 +2,10 @@ package com.mongo.bill_service.entities;
 
 import java.util.Collection;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.mongo.bill_service.serializers.DoubleRoundOffSerializer;
+import com.mongo.bill_service.serializers.MoneyDeserializer;
+import com.mongo.bill_service.serializers.MoneySerializer;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,7 +20,9 @@ public class SplitResponse {
 
 	private Collection<Split> details;
 	
-	@JsonSerialize(using = DoubleRoundOffSerializer.class)
-	private double total;
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	@JsonDeserialize(using = MoneyDeserializer.class)
+	private long total;
 
 }
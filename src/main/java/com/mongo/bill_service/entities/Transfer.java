@@ -0,0 +1,25 @@
+package com.mongo.bill_service.entities;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.mongo.bill_service.serializers.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Transfer {
+
+	private String from;
+
+	private String to;
+
+	// Paise
+	@JsonSerialize(using = MoneySerializer.class)
+	private long amount;
+
+}
@@ -0,0 +1,38 @@
+package com.mongo.bill_service.events;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.mongo.bill_service.documents.BillDetails;
+
+import lombok.Getter;
+
+// Published after bills are written. removed holds the stored state that is gone (the pre-image
+// of a replace or a deleted bill), added the state now stored; either may be empty.
+@Getter
+public class BillChangedEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<BillDetails> removed;
+	private final List<BillDetails> added;
+
+	public BillChangedEvent(Object source, List<BillDetails> removed, List<BillDetails> added) {
+		super(source);
+		this.removed = removed;
+		this.added = added;
+	}
+
+	public static BillChangedEvent saved(Object source, BillDetails previous, BillDetails current) {
+		return new BillChangedEvent(source, previous == null ? List.of() : List.of(previous), List.of(current));
+	}
+
+	public static BillChangedEvent deleted(Object source, BillDetails bill) {
+		return new BillChangedEvent(source, List.of(bill), List.of());
+	}
+
+	public static BillChangedEvent inserted(Object source, List<BillDetails> bills) {
+		return new BillChangedEvent(source, List.of(), bills);
+	}
+}
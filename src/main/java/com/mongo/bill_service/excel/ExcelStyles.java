@@ -0,0 +1,48 @@
+package com.mongo.bill_service.excel;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import lombok.Getter;
+
+// One set of styles and fonts per workbook, shared by every sheet written into it
+@Getter
+public class ExcelStyles {
+
+	private final CellStyle header;
+	private final CellStyle border;
+	private final CellStyle bold;
+
+	public ExcelStyles(Workbook workbook) {
+
+		Font headerFont = workbook.createFont();
+		headerFont.setBold(true);
+		headerFont.setColor(IndexedColors.WHITE.getIndex());
+
+		header = workbook.createCellStyle();
+		header.setFont(headerFont);
+		header.setFillForegroundColor(IndexedColors.TEAL.getIndex());
+		header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+		header.setAlignment(HorizontalAlignment.CENTER);
+		header.setVerticalAlignment(VerticalAlignment.CENTER);
+
+		border = workbook.createCellStyle();
+		border.setBorderTop(BorderStyle.THIN);
+		border.setBorderBottom(BorderStyle.THIN);
+		border.setBorderLeft(BorderStyle.THIN);
+		border.setBorderRight(BorderStyle.THIN);
+		border.setVerticalAlignment(VerticalAlignment.CENTER);
+
+		Font boldFont = workbook.createFont();
+		boldFont.setBold(true);
+
+		bold = workbook.createCellStyle();
+		bold.setFont(boldFont);
+	}
+}
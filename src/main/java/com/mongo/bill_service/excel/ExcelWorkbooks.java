@@ -0,0 +1,52 @@
+package com.mongo.bill_service.excel;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+public class ExcelWorkbooks {
+
+	// Rows kept in memory per sheet; older rows are flushed to a compressed temp file
+	public static final int ROW_WINDOW = 100;
+
+	private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+	// Builds the workbook while the response is being written, so the file never exists as a byte[].
+	// Generation time and size go to the global registry, which Spring Boot adds its registries to.
+	public static ResponseEntity<StreamingResponseBody> download(String filePrefix, Consumer<SXSSFWorkbook> content) {
+
+		StreamingResponseBody body = out -> {
+			Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+			String outcome = "error";
+			CountingOutputStream counted = new CountingOutputStream(out);
+			SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+			workbook.setCompressTempFiles(true);
+			try (workbook) {
+				content.accept(workbook);
+				workbook.write(counted);
+				outcome = "success";
+			} finally {
+				workbook.dispose();
+				sample.stop(Timer.builder("bill.export.duration").tag("type", filePrefix).tag("outcome", outcome)
+						.register(Metrics.globalRegistry));
+			}
+			DistributionSummary.builder("bill.export.size").baseUnit("bytes").tag("type", filePrefix)
+					.register(Metrics.globalRegistry).record(counted.getByteCount());
+		};
+
+		String fileName = filePrefix + "_" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".xlsx";
+		return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+				.contentType(MediaType.APPLICATION_OCTET_STREAM).body(body);
+	}
+}
@@ -0,0 +1,84 @@
+package com.mongo.bill_service.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import com.mongo.bill_service.money.Money;
+
+// Writes cells while remembering the widest value per column, replacing autoSizeColumn which
+// has to re-measure every cell with AWT font metrics and cannot see rows already flushed to disk
+public class SheetWriter {
+
+	private static final int MAX_CHARS = 255;
+
+	private static final int PADDING_CHARS = 2;
+
+	private final Sheet sheet;
+	private final int[] widths;
+
+	public SheetWriter(Sheet sheet, int columns) {
+		this.sheet = sheet;
+		this.widths = new int[columns];
+	}
+
+	public Sheet getSheet() {
+		return sheet;
+	}
+
+	public Row row(int rowNum) {
+		return sheet.createRow(rowNum);
+	}
+
+	public Cell cell(Row row, int column, String value, CellStyle style) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		track(column, value == null ? 0 : value.length());
+		if (style != null) {
+			cell.setCellStyle(style);
+		}
+		return cell;
+	}
+
+	public Cell cell(Row row, int column, double value, CellStyle style) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		track(column, numberWidth(value));
+		if (style != null) {
+			cell.setCellStyle(style);
+		}
+		return cell;
+	}
+
+	// Paise shown as a rupee number
+	public Cell money(Row row, int column, long paise, CellStyle style) {
+		return cell(row, column, Money.toRupees(paise), style);
+	}
+
+	public Sheet finish() {
+		for (int i = 0; i < widths.length; i++) {
+			if (widths[i] > 0) {
+				sheet.setColumnWidth(i, Math.min(MAX_CHARS, widths[i] + PADDING_CHARS) * 256);
+			}
+		}
+		return sheet;
+	}
+
+	private void track(int column, int chars) {
+		if (column < widths.length && chars > widths[column]) {
+			widths[column] = chars;
+		}
+	}
+
+	// Approximate display width of the number, worked out without formatting it to a string
+	static int numberWidth(double value) {
+		long whole = (long) Math.abs(value);
+		int chars = value < 0 ? 2 : 1;
+		while (whole >= 10) {
+			whole /= 10;
+			chars++;
+		}
+		return value == Math.rint(value) ? chars : chars + 3;
+	}
+}
@@ -0,0 +1,12 @@
+package com.mongo.bill_service.exception;
+
+// The bill changed after the client read it; answered with 409 so the client reloads and retries
+public class BillConflictException extends BillException {
+
+	private static final long serialVersionUID = 1L;
+
+	public BillConflictException(String errorMessage) {
+		super("ERRO7", errorMessage);
+	}
+
+}
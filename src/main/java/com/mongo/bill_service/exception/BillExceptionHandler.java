@@ -1,18 +1,28 @@
 package com.mongo.bill_service.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import jakarta.servlet.http.HttpServletResponse;
 
+// Errors are always JSON, also from endpoints that produce NDJSON or spreadsheets
 @RestControllerAdvice
 public class BillExceptionHandler {
 
 	@ExceptionHandler(exception = BillException.class)
 	public ResponseEntity<BillExceptionResponse> handleBillException(HttpServletResponse response,
 			BillException billException) {
-		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new BillExceptionResponse(billException));
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON)
+				.body(new BillExceptionResponse(billException));
+	}
+
+	@ExceptionHandler(exception = BillConflictException.class)
+	public ResponseEntity<BillExceptionResponse> handleBillConflictException(HttpServletResponse response,
+			BillConflictException billException) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+				.body(new BillExceptionResponse(billException));
 	}
 }
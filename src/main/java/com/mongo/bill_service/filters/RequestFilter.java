@@ -5,6 +5,8 @@ import java.io.IOException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.mongo.bill_service.consts.Consts;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,8 +20,9 @@ public class RequestFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 		
 		response.addHeader("Access-Control-Allow-Origin", "*");
-		response.addHeader("Access-Control-Allow-Methods", "POST, GET, OPTIONS, DELETE");
+		response.addHeader("Access-Control-Allow-Methods", "POST, GET, OPTIONS, PUT, DELETE");
 		response.addHeader("Access-Control-Allow-Headers", "*");
+		response.addHeader("Access-Control-Expose-Headers", Consts.NEXT_CURSOR_HEADER);
 		
 		filterChain.doFilter(request, response);	
 	}
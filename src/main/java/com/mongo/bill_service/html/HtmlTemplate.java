@@ -0,0 +1,43 @@
+package com.mongo.bill_service.html;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Pattern;
+
+import org.springframework.web.util.HtmlUtils;
+
+// A template split once at its %s/%d placeholders. Rendering writes the literal parts and the slot
+// in each placeholder straight to the writer, so a page is never assembled as a String.
+public class HtmlTemplate {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("%[sd]");
+
+	@FunctionalInterface
+	public interface Slot {
+		void write(Writer out) throws IOException;
+	}
+
+	private final String[] parts;
+
+	public HtmlTemplate(String source) {
+		this.parts = PLACEHOLDER.split(source, -1);
+	}
+
+	public void render(Writer out, Slot... slots) throws IOException {
+		if (slots.length != parts.length - 1) {
+			throw new IllegalArgumentException(
+					"Template has " + (parts.length - 1) + " placeholders, got " + slots.length + " values");
+		}
+
+		out.write(parts[0]);
+		for (int i = 0; i < slots.length; i++) {
+			slots[i].write(out);
+			out.write(parts[i + 1]);
+		}
+	}
+
+	// User supplied text, escaped
+	public static Slot text(String value) {
+		return out -> out.write(HtmlUtils.htmlEscape(String.valueOf(value)));
+	}
+}
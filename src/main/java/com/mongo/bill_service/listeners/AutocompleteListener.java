@@ -0,0 +1,28 @@
+package com.mongo.bill_service.listeners;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.services.AutocompleteService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class AutocompleteListener implements ApplicationListener<BillChangedEvent> {
+
+	@Autowired
+	AutocompleteService autocompleteService;
+
+	// Suggestions only rank by the counts, one change missed is not worth failing the request for
+	@Override
+	public void onApplicationEvent(BillChangedEvent event) {
+		try {
+			autocompleteService.apply(event);
+		} catch (RuntimeException e) {
+			log.error("Bill change not applied to the suggestions", e);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.mongo.bill_service.listeners;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.services.SequenceAllocator;
+
+// Assigns ids and a fresh version before a bill is written. An entity callback rather than a
+// mapping event because findAndReplace only runs callbacks.
+@Component
+public class BillConvertCallback implements BeforeConvertCallback<BillDetails> {
+
+	// Lazy: callbacks are looked up while MongoTemplate is created, and the allocator needs it
+	@Autowired
+	@Lazy
+	SequenceAllocator sequenceAllocator;
+
+	@Override
+	public BillDetails onBeforeConvert(BillDetails bill, String collection) {
+		if (bill.getBillId() < 1) {
+			int billId = sequenceAllocator.next(BillDetails.SEQUENCE);
+			bill.setBillId(billId);
+		}
+
+		// Ids for all new items come out of one allocation
+		List<Item> newItems = bill.getItems().stream().filter(t -> t.getItemId() < 1).toList();
+		if (!newItems.isEmpty()) {
+			int[] itemIds = sequenceAllocator.next(Item.SEQUENCE, newItems.size());
+			for (int i = 0; i < itemIds.length; i++) {
+				newItems.get(i).setItemId(itemIds[i]);
+			}
+		}
+
+		bill.setVersion(sequenceAllocator.next(BillDetails.VERSION_SEQUENCE));
+		return bill;
+	}
+}
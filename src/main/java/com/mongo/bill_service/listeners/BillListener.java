@@ -1,14 +1,20 @@
 package com.mongo.bill_service.listeners;
 
+import java.util.List;
+
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
-import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
 import org.springframework.stereotype.Component;
 
 import com.mongo.bill_service.documents.BillDetails;
 import com.mongo.bill_service.documents.Item;
-import com.mongo.bill_service.repos.SequenceRepository;
+import com.mongo.bill_service.money.Money;
+import com.mongo.bill_service.services.SplitCache;
 
 @Component
 public class BillListener extends AbstractMongoEventListener<BillDetails> {
@@ -17,24 +23,63 @@ public class BillListener extends AbstractMongoEventListener<BillDetails> {
 	MongoTemplate mongoTemplate;
 
 	@Autowired
-	SequenceRepository sequenceRepository;
+	SplitCache splitCache;
 
+	// Bills stored before amounts moved to paise hold rupee doubles, which the mapping truncates.
+	// Take those amounts from the raw document until PaiseMigrationService has migrated the bill.
 	@Override
-	public void onBeforeConvert(BeforeConvertEvent<BillDetails> event) {
-		if (event.getSource().getBillId() < 1) {
-			int billId = sequenceRepository.getSequence(BillDetails.SEQUENCE);
-			event.getSource().setBillId(billId);
+	public void onAfterConvert(AfterConvertEvent<BillDetails> event) {
+		BillDetails bill = event.getSource();
+		Document document = event.getDocument();
 
-			for (Item item : event.getSource().getItems()) {
-				item.setItemId(sequenceRepository.getSequence(Item.SEQUENCE));
-			}
-		} else {
-			for (Item item : event.getSource().getItems()) {
-				if (item.getItemId() < 1) {
-					item.setItemId(sequenceRepository.getSequence(Item.SEQUENCE));
+		if (document.get("totalValue") instanceof Double rupees) {
+			bill.setTotalValue(Money.fromRupees(rupees));
+		}
+
+		List<?> items = document.get("items", List.class);
+		for (int i = 0; items != null && i < items.size(); i++) {
+			if (items.get(i) instanceof Document raw) {
+				Item item = bill.getItems().get(i);
+				if (raw.get("rate") instanceof Double rupees) {
+					item.setRate(Money.fromRupees(rupees));
+				}
+				if (raw.get("value") instanceof Double rupees) {
+					item.setValue(Money.fromRupees(rupees));
 				}
 			}
 		}
-		super.onBeforeConvert(event);
+
+		List<?> extraPrices = document.get("extraPrices", List.class);
+		for (int i = 0; extraPrices != null && i < extraPrices.size(); i++) {
+			if (extraPrices.get(i) instanceof Document raw && raw.get("value") instanceof Double rupees) {
+				bill.getExtraPrices().get(i).setValue(Money.fromRupees(rupees));
+			}
+		}
+
+		List<?> splits = document.get("splits", List.class);
+		for (int i = 0; splits != null && i < splits.size(); i++) {
+			if (splits.get(i) instanceof Document raw && raw.get("split") instanceof Double rupees) {
+				bill.getSplits().get(i).setSplit(Money.fromRupees(rupees));
+			}
+		}
+
+		super.onAfterConvert(event);
+	}
+
+	@Override
+	public void onAfterSave(AfterSaveEvent<BillDetails> event) {
+		splitCache.evict(event.getSource().getBillId());
+		super.onAfterSave(event);
+	}
+
+	@Override
+	public void onAfterDelete(AfterDeleteEvent<BillDetails> event) {
+		// Deletes by id carry it in the query, anything broader drops the whole cache
+		if (event.getSource().get("_id") instanceof Integer billId) {
+			splitCache.evict(billId);
+		} else {
+			splitCache.evictAll();
+		}
+		super.onAfterDelete(event);
 	}
 }
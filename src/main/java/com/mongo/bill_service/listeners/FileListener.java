@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
 import org.springframework.stereotype.Component;
 
 import com.mongo.bill_service.documents.MyFile;
-import com.mongo.bill_service.repos.SequenceRepository;
+import com.mongo.bill_service.services.SequenceAllocator;
 
 @Component
 public class FileListener extends AbstractMongoEventListener<MyFile> {
@@ -16,12 +16,12 @@ public class FileListener extends AbstractMongoEventListener<MyFile> {
 	MongoTemplate mongoTemplate;
 
 	@Autowired
-	SequenceRepository sequenceRepository;
+	SequenceAllocator sequenceAllocator;
 
 	@Override
 	public void onBeforeConvert(BeforeConvertEvent<MyFile> event) {
 		if (event.getSource().getFileId() < 1) {
-			int fileId = sequenceRepository.getSequence(MyFile.SEQUENCE);
+			int fileId = sequenceAllocator.next(MyFile.SEQUENCE);
 			event.getSource().setFileId(fileId);
 		}
 		super.onBeforeConvert(event);
@@ -0,0 +1,21 @@
+package com.mongo.bill_service.listeners;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.services.LedgerService;
+
+// Runs on the thread that wrote the bills, so a balance read after the response already includes them
+@Component
+public class LedgerListener implements ApplicationListener<BillChangedEvent> {
+
+	@Autowired
+	LedgerService ledgerService;
+
+	@Override
+	public void onApplicationEvent(BillChangedEvent event) {
+		ledgerService.applyOrRebuild(event);
+	}
+}
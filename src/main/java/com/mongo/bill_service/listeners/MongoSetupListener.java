@@ -0,0 +1,179 @@
+package com.mongo.bill_service.listeners;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.LedgerEntry;
+import com.mongo.bill_service.documents.Rollup;
+import com.mongo.bill_service.services.AutocompleteService;
+import com.mongo.bill_service.services.LedgerService;
+import com.mongo.bill_service.services.PaiseMigrationService;
+import com.mongo.bill_service.services.RollupService;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Creates the annotated indexes, backfills derived fields and the ledger and rollups, and loads the
+// autocomplete names once the application is up.
+// Runs off the startup thread so the service still boots while Mongo is unreachable.
+@Slf4j
+@Component
+public class MongoSetupListener implements ApplicationListener<ApplicationReadyEvent> {
+
+	private static final int BATCH_SIZE = 500;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	LedgerService ledgerService;
+
+	@Autowired
+	RollupService rollupService;
+
+	@Autowired
+	PaiseMigrationService paiseMigrationService;
+
+	@Autowired
+	AutocompleteService autocompleteService;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	TaskExecutor taskExecutor;
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		taskExecutor.execute(() -> {
+			try {
+				ensureIndexes(BillDetails.class);
+				ensureIndexes(Rollup.class);
+				backfillBillTimestamps();
+				paiseMigrationService.migrateAll();
+				backfillParticipantKeys();
+				initLedger();
+				initRollups();
+				autocompleteService.load();
+			} catch (Exception e) {
+				log.warn("Mongo setup skipped: {}", e.getMessage());
+			}
+		});
+	}
+
+	public void ensureIndexes(Class<?> documentClass) {
+		IndexOperations indexOps = mongoTemplate.indexOps(documentClass);
+		new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+				.resolveIndexFor(documentClass).forEach(indexOps::ensureIndex);
+	}
+
+	// Bills saved before billTimestamp existed only carry the billDate/time strings
+	public long backfillBillTimestamps() {
+		Query query = new Query(Criteria.where("billTimestamp").exists(false));
+		query.fields().include("billDate", "time");
+
+		long updated = 0;
+		BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+		int pending = 0;
+
+		try (Stream<BillDetails> bills = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) bills::iterator) {
+				LocalDateTime timestamp;
+				try {
+					timestamp = Consts.parseTimestamp(bill.getBillDate(), bill.getTime());
+				} catch (Exception e) {
+					log.warn("Bill {} has an unparseable date/time, left without billTimestamp", bill.getBillId());
+					continue;
+				}
+
+				ops.updateOne(new Query(Criteria.where("_id").is(bill.getBillId())),
+						new Update().set("billTimestamp", timestamp));
+
+				if (++pending == BATCH_SIZE) {
+					updated += ops.execute().getModifiedCount();
+					ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+					pending = 0;
+				}
+			}
+		}
+
+		if (pending > 0) {
+			updated += ops.execute().getModifiedCount();
+		}
+
+		if (updated > 0) {
+			log.info("Backfilled billTimestamp on {} bills", updated);
+		}
+		return updated;
+	}
+
+	// Bills saved before participant keys existed; keys are set per item so nothing else is rewritten
+	public long backfillParticipantKeys() {
+		Criteria missing = Criteria.where("participantKeys").exists(false);
+		Query query = new Query(missing);
+		query.fields().include("participants", "items.participants");
+
+		long updated = 0;
+		BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+		int pending = 0;
+
+		try (Stream<BillDetails> bills = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) bills::iterator) {
+				Update update = new Update().set("participantKeys",
+						bill.getParticipants().stream().map(Consts::participantKey).collect(Collectors.toSet()));
+				for (int i = 0; i < bill.getItems().size(); i++) {
+					update.set("items." + i + ".participantKeys", bill.getItems().get(i).getParticipants().stream()
+							.map(Consts::participantKey).distinct().toList());
+				}
+
+				// Matches only while the keys are still missing, a bill saved meanwhile has its own
+				ops.updateOne(new Query(Criteria.where("_id").is(bill.getBillId()).andOperator(missing)), update);
+
+				if (++pending == BATCH_SIZE) {
+					updated += ops.execute().getModifiedCount();
+					ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+					pending = 0;
+				}
+			}
+		}
+
+		if (pending > 0) {
+			updated += ops.execute().getModifiedCount();
+		}
+
+		if (updated > 0) {
+			log.info("Backfilled participant keys on {} bills", updated);
+		}
+		return updated;
+	}
+
+	// The ledger is only kept up to date incrementally, it starts from the bills stored before it existed
+	public void initLedger() {
+		if (!mongoTemplate.exists(new Query(), LedgerEntry.class)
+				&& mongoTemplate.exists(new Query(), BillDetails.class)) {
+			ledgerService.rebuild();
+		}
+	}
+
+	// Like the ledger, rollups start from the bills stored before they existed
+	public void initRollups() {
+		if (!mongoTemplate.exists(new Query(), Rollup.class) && mongoTemplate.exists(new Query(), BillDetails.class)) {
+			rollupService.rebuild();
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.mongo.bill_service.listeners;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.services.RollupService;
+
+@Component
+public class RollupListener implements ApplicationListener<BillChangedEvent> {
+
+	@Autowired
+	RollupService rollupService;
+
+	@Override
+	public void onApplicationEvent(BillChangedEvent event) {
+		rollupService.applyOrRebuild(event);
+	}
+}
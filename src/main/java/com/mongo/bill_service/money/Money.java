@@ -0,0 +1,146 @@
+package com.mongo.bill_service.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts are held as long paise; rupees only appear at the edges (JSON, Excel, HTML)
+public final class Money {
+
+	private Money() {
+	}
+
+	// Decimal rupees to paise, rounding half up at the third decimal like the old roundDouble
+	public static long parse(String rupees) {
+		String text = rupees.trim();
+		if (text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+			return new BigDecimal(text).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+		}
+
+		int i = 0;
+		boolean negative = false;
+		if (i < text.length() && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+			negative = text.charAt(i++) == '-';
+		}
+
+		long paise = 0;
+		int digits = 0;
+		int decimals = -1;
+		boolean roundUp = false;
+		for (; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '.' && decimals < 0) {
+				decimals = 0;
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				throw new NumberFormatException("Not an amount: " + rupees);
+			}
+			digits++;
+			if (decimals < 2) {
+				paise = Math.addExact(Math.multiplyExact(paise, 10), c - '0');
+				if (decimals >= 0) {
+					decimals++;
+				}
+			} else if (decimals == 2) {
+				roundUp = c >= '5';
+				decimals++;
+			}
+		}
+		if (digits == 0) {
+			throw new NumberFormatException("Not an amount: " + rupees);
+		}
+
+		for (int d = Math.max(decimals, 0); d < 2; d++) {
+			paise = Math.multiplyExact(paise, 10);
+		}
+		if (roundUp) {
+			paise++;
+		}
+		return negative ? -paise : paise;
+	}
+
+	// Rupee doubles from bills stored before amounts moved to paise
+	public static long fromRupees(double rupees) {
+		return parse(Double.toString(rupees));
+	}
+
+	// paise / 100.0 is the double nearest the two-decimal amount, so it prints back exactly
+	public static double toRupees(long paise) {
+		return paise / 100.0;
+	}
+
+	public static String format(long paise) {
+		long whole = Math.abs(paise / 100);
+		long fraction = Math.abs(paise % 100);
+		StringBuilder text = new StringBuilder(24);
+		if (paise < 0) {
+			text.append('-');
+		}
+		return text.append(whole).append('.').append(fraction < 10 ? "0" : "").append(fraction).toString();
+	}
+
+	// Equal shares; the leftover paise go to the first parts, one each
+	public static long[] split(long amount, int parts) {
+		long[] shares = new long[parts];
+		if (parts == 0) {
+			return shares;
+		}
+
+		long magnitude = Math.abs(amount);
+		long base = magnitude / parts;
+		long left = magnitude % parts;
+		for (int i = 0; i < parts; i++) {
+			shares[i] = base + (i < left ? 1 : 0);
+			if (amount < 0) {
+				shares[i] = -shares[i];
+			}
+		}
+		return shares;
+	}
+
+	// Shares in proportion to the weights that always add up to amount (largest remainder method).
+	// Falls back to equal shares when the weights are all zero or any is negative.
+	public static long[] allocate(long amount, long[] weights) {
+		int parts = weights.length;
+		long totalWeight = 0;
+		for (long weight : weights) {
+			if (weight < 0) {
+				return split(amount, parts);
+			}
+			totalWeight += weight;
+		}
+		if (totalWeight == 0) {
+			return split(amount, parts);
+		}
+
+		long magnitude = Math.abs(amount);
+		long[] shares = new long[parts];
+		long[] remainders = new long[parts];
+		long given = 0;
+		for (int i = 0; i < parts; i++) {
+			long exact = Math.multiplyExact(magnitude, weights[i]);
+			shares[i] = exact / totalWeight;
+			remainders[i] = exact % totalWeight;
+			given += shares[i];
+		}
+
+		// Fewer than parts paise are left; the largest remainders get one each, earlier parts win ties
+		for (long left = magnitude - given; left > 0; left--) {
+			int best = -1;
+			for (int i = 0; i < parts; i++) {
+				if (remainders[i] >= 0 && (best < 0 || remainders[i] > remainders[best])) {
+					best = i;
+				}
+			}
+			shares[best]++;
+			remainders[best] = -1;
+		}
+
+		if (amount < 0) {
+			for (int i = 0; i < parts; i++) {
+				shares[i] = -shares[i];
+			}
+		}
+		return shares;
+	}
+}
@@ -6,6 +6,6 @@ import org.springframework.stereotype.Repository;
 import com.mongo.bill_service.documents.BillDetails;
 
 @Repository
-public interface BillRepository extends MongoRepository<BillDetails, Integer> {
+public interface BillRepository extends MongoRepository<BillDetails, Integer>, BillRepositoryCustom {
 
 }
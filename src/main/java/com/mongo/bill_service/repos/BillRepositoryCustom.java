@@ -0,0 +1,30 @@
+package com.mongo.bill_service.repos;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.entities.BillCursor;
+import com.mongo.bill_service.entities.BillRef;
+
+public interface BillRepositoryCustom {
+
+	List<BillDetails> findPage(LocalDateTime from, LocalDateTime to, BillCursor after, Sort.Direction direction,
+			int limit);
+
+	List<BillDetails> findPage(LocalDateTime from, LocalDateTime to, BillCursor after, Sort.Direction direction,
+			int limit, Collection<String> fields);
+
+	Stream<BillDetails> streamPage(LocalDateTime from, LocalDateTime to, BillCursor after, Sort.Direction direction,
+			Integer limit);
+
+	List<BillDetails> search(String text, int limit, Collection<String> fields);
+
+	Long findVersion(int billId);
+
+	List<BillRef> findByParticipantKey(String participantKey, BillCursor after, int limit);
+}
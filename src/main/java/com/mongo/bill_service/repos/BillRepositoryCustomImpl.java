@@ -0,0 +1,131 @@
+package com.mongo.bill_service.repos;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.entities.BillCursor;
+import com.mongo.bill_service.entities.BillRef;
+
+public class BillRepositoryCustomImpl implements BillRepositoryCustom {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	private static final int CURSOR_BATCH_SIZE = 200;
+
+	@Override
+	public List<BillDetails> findPage(LocalDateTime from, LocalDateTime to, BillCursor after, Sort.Direction direction,
+			int limit) {
+		return mongoTemplate.find(pageQuery(from, to, after, direction).limit(limit), BillDetails.class);
+	}
+
+	// Only the given fields, plus the id and billTimestamp the next page's cursor is made of
+	@Override
+	public List<BillDetails> findPage(LocalDateTime from, LocalDateTime to, BillCursor after, Sort.Direction direction,
+			int limit, Collection<String> fields) {
+
+		Query query = pageQuery(from, to, after, direction).limit(limit);
+		query.fields().include(fields.toArray(new String[0])).include("billTimestamp");
+		return mongoTemplate.find(query, BillDetails.class);
+	}
+
+	// Same bills and order as findPage, read off the cursor one batch at a time; the caller closes it
+	@Override
+	public Stream<BillDetails> streamPage(LocalDateTime from, LocalDateTime to, BillCursor after,
+			Sort.Direction direction, Integer limit) {
+
+		Query query = pageQuery(from, to, after, direction).cursorBatchSize(CURSOR_BATCH_SIZE);
+		if (limit != null && limit > 0) {
+			query.limit(limit);
+		}
+		return mongoTemplate.stream(query, BillDetails.class);
+	}
+
+	private static Query pageQuery(LocalDateTime from, LocalDateTime to, BillCursor after, Sort.Direction direction) {
+
+		Query query = new Query();
+
+		// Range filter on the native timestamp, served by the billTimestamp_id index
+		if (from != null || to != null) {
+			Criteria range = Criteria.where("billTimestamp");
+			if (from != null) {
+				range.gte(from);
+			}
+			if (to != null) {
+				range.lt(to);
+			}
+			query.addCriteria(range);
+		}
+
+		if (after != null) {
+			query.addCriteria(after(after, direction));
+		}
+
+		return query.with(Sort.by(direction, "billTimestamp", "_id"));
+	}
+
+	// Keyset: continue strictly after the last (billTimestamp, _id) of the previous page. Bills without a
+	// billTimestamp sort below every timestamp, as Mongo orders them, and $lt/$gt on a date never match them.
+	private static Criteria after(BillCursor after, Sort.Direction direction) {
+		Criteria beyondId = direction.isAscending() ? Criteria.where("_id").gt(after.getBillId())
+				: Criteria.where("_id").lt(after.getBillId());
+		Criteria sameTime = new Criteria().andOperator(Criteria.where("billTimestamp").is(after.getBillTimestamp()),
+				beyondId);
+
+		if (after.getBillTimestamp() == null) {
+			return direction.isAscending()
+					? new Criteria().orOperator(sameTime, Criteria.where("billTimestamp").ne(null))
+					: sameTime;
+		}
+		return direction.isAscending()
+				? new Criteria().orOperator(Criteria.where("billTimestamp").gt(after.getBillTimestamp()), sameTime)
+				: new Criteria().orOperator(Criteria.where("billTimestamp").lt(after.getBillTimestamp()), sameTime,
+						Criteria.where("billTimestamp").is(null));
+	}
+
+	// Newest first. Filter, sort and projection all come from the participantKeys_billTimestamp_id
+	// index, so no bill document is fetched.
+	@Override
+	public List<BillRef> findByParticipantKey(String participantKey, BillCursor after, int limit) {
+
+		Query query = new Query(Criteria.where("participantKeys").is(participantKey));
+		if (after != null) {
+			query.addCriteria(after(after, Sort.Direction.DESC));
+		}
+		query.fields().include("billTimestamp");
+		query.with(Sort.by(Sort.Direction.DESC, "billTimestamp", "_id")).limit(limit);
+
+		return mongoTemplate.find(query, BillDetails.class).stream()
+				.map(t -> new BillRef(t.getBillId(), t.getBillTimestamp())).toList();
+	}
+
+	// Best matches first on the text index over store, bill number and item names, only the given fields
+	@Override
+	public List<BillDetails> search(String text, int limit, Collection<String> fields) {
+
+		Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore()
+				.limit(limit);
+		query.fields().include(fields.toArray(new String[0]));
+		return mongoTemplate.find(query, BillDetails.class);
+	}
+
+	@Override
+	public Long findVersion(int billId) {
+		Query query = new Query(Criteria.where("_id").is(billId));
+		query.fields().include("version");
+
+		BillDetails bill = mongoTemplate.findOne(query, BillDetails.class);
+		return bill == null ? null : bill.getVersion();
+	}
+}
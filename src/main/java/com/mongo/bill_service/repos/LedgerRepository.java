@@ -0,0 +1,11 @@
+package com.mongo.bill_service.repos;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.mongo.bill_service.documents.LedgerEntry;
+
+@Repository
+public interface LedgerRepository extends MongoRepository<LedgerEntry, String> {
+
+}
@@ -15,12 +15,11 @@ public class SequenceRepository {
 
 	@Autowired
 	MongoTemplate mongoTemplate;
-	
-	private static final int INCREMENT = 5;
 
-	public int getSequence(String collection) {
+	// Reserves size ids in one round trip and returns the last one; the block is [last - size + 1, last]
+	public int reserveBlock(String collection, int size) {
 		Sequence ret = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(collection)),
-				new Update().inc("seq", INCREMENT), FindAndModifyOptions.options().returnNew(true).upsert(true),
+				new Update().inc("seq", size), FindAndModifyOptions.options().returnNew(true).upsert(true),
 				Sequence.class);
 		return ret.getSeq();
 	}
@@ -0,0 +1,33 @@
+package com.mongo.bill_service.serializers;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.mongo.bill_service.money.Money;
+
+// Decimal rupees in as paise, read from the number's text so no binary rounding creeps in
+public class MoneyDeserializer extends JsonDeserializer<Long> {
+
+	@Override
+	public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		JsonToken token = p.currentToken();
+		if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+				&& token != JsonToken.VALUE_STRING) {
+			return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+		}
+
+		try {
+			return Money.parse(p.getText());
+		} catch (NumberFormatException | ArithmeticException e) {
+			return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), "not a valid amount");
+		}
+	}
+
+	@Override
+	public Long getNullValue(DeserializationContext ctxt) {
+		return 0L;
+	}
+}
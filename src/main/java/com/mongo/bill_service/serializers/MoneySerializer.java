@@ -0,0 +1,19 @@
+package com.mongo.bill_service.serializers;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.mongo.bill_service.money.Money;
+
+// Paise out as decimal rupees, keeping the wire format of the old double fields
+public class MoneySerializer extends JsonSerializer<Long> {
+
+	@Override
+	public void serialize(Long value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		if (value != null) {
+			gen.writeNumber(Money.toRupees(value));
+		}
+	}
+}
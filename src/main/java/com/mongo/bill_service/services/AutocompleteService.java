@@ -0,0 +1,123 @@
+package com.mongo.bill_service.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.events.BillChangedEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Store and item names in memory, keyed like participant names and sorted, so the names under a
+// prefix are one range of the map. Each name counts the bills it appears on, the most used come first.
+@Slf4j
+@Service
+public class AutocompleteService {
+
+	// Names looked at per lookup; a short prefix ranks the first ones in key order, not all of them
+	private static final int SCAN_LIMIT = 1000;
+
+	private static final int CURSOR_BATCH_SIZE = 1000;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	private final ConcurrentSkipListMap<String, Name> stores = new ConcurrentSkipListMap<String, Name>();
+	private final ConcurrentSkipListMap<String, Name> items = new ConcurrentSkipListMap<String, Name>();
+
+	public List<String> stores(String prefix, int limit) {
+		return lookup(stores, prefix, limit);
+	}
+
+	public List<String> items(String prefix, int limit) {
+		return lookup(items, prefix, limit);
+	}
+
+	public void apply(BillChangedEvent event) {
+		event.getRemoved().forEach(t -> count(t, -1));
+		event.getAdded().forEach(t -> count(t, 1));
+	}
+
+	// Adds every stored bill. Runs once on startup into the same maps the events update, so a bill
+	// saved meanwhile may be counted twice, which only moves it up the suggestions.
+	public long load() {
+		Query query = new Query().cursorBatchSize(CURSOR_BATCH_SIZE);
+		query.fields().include("store", "items.name");
+
+		long bills = 0;
+		try (Stream<BillDetails> stream = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) stream::iterator) {
+				count(bill, 1);
+				bills++;
+			}
+		}
+
+		log.info("Autocomplete loaded {} stores and {} items from {} bills", stores.size(), items.size(), bills);
+		return bills;
+	}
+
+	private void count(BillDetails bill, int delta) {
+		count(stores, bill.getStore(), delta);
+
+		// Once per bill, however many lines carry the name
+		Map<String, String> names = new HashMap<String, String>();
+		for (Item item : bill.getItems()) {
+			if (item.getName() != null && !item.getName().isBlank()) {
+				names.putIfAbsent(Consts.participantKey(item.getName()), item.getName());
+			}
+		}
+		names.values().forEach(t -> count(items, t, delta));
+	}
+
+	private static void count(ConcurrentSkipListMap<String, Name> names, String name, int delta) {
+		if (name == null || name.isBlank()) {
+			return;
+		}
+
+		String key = Consts.participantKey(name);
+		if (delta > 0) {
+			names.merge(key, new Name(name.trim(), delta), (t, u) -> new Name(t.display, t.bills + u.bills));
+		} else {
+			names.computeIfPresent(key, (t, u) -> u.bills + delta > 0 ? new Name(u.display, u.bills + delta) : null);
+		}
+	}
+
+	private static List<String> lookup(ConcurrentSkipListMap<String, Name> names, String prefix, int limit) {
+		String key = Consts.participantKey(prefix);
+		ConcurrentNavigableMap<String, Name> range = key.isEmpty() ? names
+				: names.subMap(key, true, key + Character.MAX_VALUE, false);
+
+		List<Name> matches = new ArrayList<Name>();
+		for (Name name : range.values()) {
+			matches.add(name);
+			if (matches.size() == SCAN_LIMIT) {
+				break;
+			}
+		}
+
+		// Stable, so names used on as many bills stay in key order
+		matches.sort(Comparator.comparingLong((Name t) -> t.bills).reversed());
+		return matches.stream().limit(limit).map(t -> t.display).toList();
+	}
+
+	// As first seen, and the number of stored bills it is on
+	@AllArgsConstructor
+	private static class Name {
+		final String display;
+		final long bills;
+	}
+}
@@ -0,0 +1,157 @@
+package com.mongo.bill_service.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.entities.BulkResult;
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongodb.bulk.BulkWriteError;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class BillIngestService {
+
+	private static final int DUPLICATE_KEY = 11000;
+
+	// The unique indexes a resubmitted bill runs into, by name in the server's error message. Spring names
+	// them after the field; the _1 suffix is the server's default name.
+	private static final Pattern BILL_KEY_INDEX = Pattern.compile("index: (fingerprint|idempotencyKey)(_1)? ");
+
+	private static final String DUPLICATE_BILL = "Duplicate bill: one with the same store, bill number, date, time and totals is stored.";
+
+	private static final String INVALID_BILL = "Invalid bill format: Missing or incorrect attributes. Please review and resubmit.";
+
+	private static final String NOT_STORED = "Bill could not be stored, please retry.";
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	BillService billService;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	@Value("${bill.bulk.batch-size}")
+	int batchSize;
+
+	// Reads a JSON array or newline-delimited bills one at a time and inserts them in unordered batches
+	public List<BulkResult> ingest(InputStream body) throws IOException {
+
+		List<BulkResult> results = new ArrayList<BulkResult>();
+		List<BillDetails> batch = new ArrayList<BillDetails>(batchSize);
+		List<BulkResult> pending = new ArrayList<BulkResult>(batchSize);
+		int index = 0;
+
+		try (MappingIterator<BillDetails> bills = objectMapper.readerFor(BillDetails.class).readValues(body)) {
+			while (true) {
+				BillDetails bill;
+				try {
+					if (!bills.hasNextValue()) {
+						break;
+					}
+					bill = bills.nextValue();
+				} catch (JsonParseException e) {
+					// Broken JSON, nothing after this point can be located reliably
+					results.add(BulkResult.failed(index, "Malformed JSON: " + e.getOriginalMessage()));
+					break;
+				} catch (JsonMappingException e) {
+					// Well-formed but not a bill; the iterator skips to the next value
+					results.add(BulkResult.failed(index++, INVALID_BILL));
+					continue;
+				}
+
+				try {
+					billService.prepare(bill);
+				} catch (Exception e) {
+					results.add(BulkResult.failed(index++, INVALID_BILL));
+					continue;
+				}
+
+				BulkResult result = new BulkResult(index++, null, true, null);
+				results.add(result);
+				batch.add(bill);
+				pending.add(result);
+
+				if (batch.size() == batchSize) {
+					flush(batch, pending);
+				}
+			}
+		}
+
+		flush(batch, pending);
+		return results;
+	}
+
+	private void flush(List<BillDetails> batch, List<BulkResult> pending) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class).insert(batch).execute();
+		} catch (BulkOperationException e) {
+			for (BulkWriteError error : e.getErrors()) {
+				BulkResult result = pending.get(error.getIndex());
+				result.setSuccess(false);
+				result.setError(error(error));
+			}
+		} catch (DataAccessException e) {
+			log.warn("Bulk insert of {} bills failed: {}", batch.size(), e.getMessage());
+			pending.forEach(t -> {
+				t.setSuccess(false);
+				t.setError(NOT_STORED);
+			});
+		}
+
+		// Ids are assigned by BillConvertCallback while the batch is converted
+		List<BillDetails> stored = new ArrayList<BillDetails>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			if (pending.get(i).isSuccess()) {
+				pending.get(i).setBillId(batch.get(i).getBillId());
+				stored.add(batch.get(i));
+			}
+		}
+		if (!stored.isEmpty()) {
+			eventPublisher.publishEvent(BillChangedEvent.inserted(this, stored));
+		}
+
+		batch.clear();
+		pending.clear();
+	}
+
+	// A duplicate on any other unique index, such as an _id the sequence handed out twice, is the server's
+	// fault rather than the bill's
+	private static String error(BulkWriteError error) {
+		if (error.getCode() != DUPLICATE_KEY) {
+			return error.getMessage();
+		}
+		if (BILL_KEY_INDEX.matcher(error.getMessage()).find()) {
+			return DUPLICATE_BILL;
+		}
+		log.error("Bulk insert failed on a duplicate key that is not a bill key: {}", error.getMessage());
+		return NOT_STORED;
+	}
+}
@@ -0,0 +1,196 @@
+package com.mongo.bill_service.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.ItemChange;
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.exception.BillConflictException;
+import com.mongo.bill_service.exception.BillException;
+
+// Adds, replaces and removes single items with $push, filtered positional $set and $pull, moving the
+// totals with $inc in the same update, so the rest of the bill is neither sent nor rewritten and changes
+// to different items of a bill don't conflict. The stored split is marked stale, BillService.currentSplit
+// recomputes it when next needed.
+@Service
+public class BillItemService {
+
+	private static final int MAX_ATTEMPTS = 3;
+
+	// What the bill change listeners, the participants and the fingerprint need from the bill before
+	private static final String[] PREVIOUS_FIELDS = { "store", "billNumber", "billTimestamp", "paidBy", "items",
+			"extraPrices", "totalValue", "totalItems", "totalQuantity", "version" };
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	BillService billService;
+
+	@Autowired
+	SequenceAllocator sequenceAllocator;
+
+	@Autowired
+	SplitCache splitCache;
+
+	@Autowired
+	PaiseMigrationService paiseMigrationService;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	public ItemChange add(int billId, Item item) {
+		validate(item);
+		item.setItemId(sequenceAllocator.next(Item.SEQUENCE));
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			Update update = withParticipants(new Update().push("items", item), item).inc("totalValue", item.getValue())
+					.inc("totalQuantity", item.getQuantity()).inc("totalItems", 1);
+
+			BillDetails current = modify(Criteria.where("_id").is(billId), update, items -> items.add(item));
+			if (current != null) {
+				return ItemChange.of(current, item);
+			}
+			beforeRetry(billId);
+		}
+
+		throw new BillConflictException("Bill " + billId + " is being changed concurrently, please retry.");
+	}
+
+	public ItemChange update(int billId, int itemId, Item item) {
+		validate(item);
+		item.setItemId(itemId);
+
+		return modifyItem(billId, itemId,
+				old -> withParticipants(new Update().set("items.$[item]", item), item)
+						.filterArray(Criteria.where("item._id").is(itemId))
+						.inc("totalValue", item.getValue() - old.getValue())
+						.inc("totalQuantity", item.getQuantity() - old.getQuantity()),
+				items -> items.replaceAll(t -> t.getItemId() == itemId ? item : t), item);
+	}
+
+	public ItemChange remove(int billId, int itemId) {
+		return modifyItem(billId, itemId,
+				old -> new Update().pull("items", new Document("_id", itemId)).inc("totalValue", -old.getValue())
+						.inc("totalQuantity", -old.getQuantity()).inc("totalItems", -1),
+				items -> items.removeIf(t -> t.getItemId() == itemId), null);
+	}
+
+	// $inc needs the old item's amounts. Only that item is read, and the update matches only while it
+	// still holds them; changes to other items don't conflict since their deltas add up either way.
+	private ItemChange modifyItem(int billId, int itemId, Function<Item, Update> update,
+			Consumer<List<Item>> itemChange, Item item) {
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			Query itemQuery = new Query(Criteria.where("_id").is(billId));
+			itemQuery.fields().elemMatch("items", Criteria.where("_id").is(itemId));
+			BillDetails found = mongoTemplate.findOne(itemQuery, BillDetails.class);
+			if (found == null || found.getItems() == null || found.getItems().isEmpty()) {
+				throw new BillException("ERRO6", "Invalid item: bill " + billId + " has no item " + itemId + ".");
+			}
+
+			Item old = found.getItems().get(0);
+			Criteria unchanged = Criteria.where("_id").is(billId).and("items").elemMatch(Criteria.where("_id")
+					.is(itemId).and("value").is(old.getValue()).and("quantity").is(old.getQuantity()));
+
+			BillDetails current = modify(unchanged, update.apply(old), itemChange);
+			if (current != null) {
+				return ItemChange.of(current, item);
+			}
+			beforeRetry(billId);
+		}
+
+		throw new BillConflictException("Item " + itemId + " is being changed concurrently, please retry.");
+	}
+
+	// Applies the update and returns the bill as it now stands, or null when the query matched nothing.
+	// A bill still in rupees never matches, paise written next to its doubles would be read back as rupees.
+	private BillDetails modify(Criteria match, Update update, Consumer<List<Item>> itemChange) {
+		long version = sequenceAllocator.next(BillDetails.VERSION_SEQUENCE);
+		update.set("splitVersion", 0).set("version", version).unset("fingerprint");
+
+		Query query = new Query(match.andOperator(PaiseMigrationService.inPaise()));
+		query.fields().include(PREVIOUS_FIELDS);
+		BillDetails previous = mongoTemplate.findAndModify(query, update,
+				FindAndModifyOptions.options().returnNew(false), BillDetails.class);
+		if (previous == null) {
+			return null;
+		}
+
+		// The stored bill is now previous with its items changed. Rebuilding it here rather than reading
+		// it back gives the participants and fingerprint to store and the state the ledger moves to.
+		BillDetails current = new BillDetails();
+		BeanUtils.copyProperties(previous, current);
+		current.setItems(new ArrayList<Item>(previous.getItems() == null ? List.of() : previous.getItems()));
+		itemChange.accept(current.getItems());
+		billService.derive(current);
+		current.setVersion(version);
+
+		storeDerived(current);
+		splitCache.evict(current.getBillId());
+		eventPublisher.publishEvent(BillChangedEvent.saved(this, previous, current));
+		return current;
+	}
+
+	// $addToSet can only grow the participants; whoever left with the old item goes here, and the totals
+	// get their fingerprint back. Conditional on the version, a later change stores its own.
+	private void storeDerived(BillDetails current) {
+		Query query = new Query(Criteria.where("_id").is(current.getBillId()).and("version").is(current.getVersion()));
+
+		if (current.getFingerprint() != null) {
+			try {
+				mongoTemplate.updateFirst(query, participants(current).set("fingerprint", current.getFingerprint()),
+						BillDetails.class);
+				return;
+			} catch (DuplicateKeyException e) {
+				// The edit made it look like another stored bill. It goes without a fingerprint rather
+				// than catching resubmissions of a receipt it no longer matches.
+				current.setFingerprint(null);
+			}
+		}
+		mongoTemplate.updateFirst(query, participants(current), BillDetails.class);
+	}
+
+	// Nothing matched: the bill is gone, is still in rupees and gets migrated, or changed meanwhile
+	private void beforeRetry(int billId) {
+		if (!paiseMigrationService.migrate(billId)
+				&& !mongoTemplate.exists(new Query(Criteria.where("_id").is(billId)), BillDetails.class)) {
+			throw new BillException("ERRO6", "Invalid bill: bill " + billId + " does not exist.");
+		}
+	}
+
+	private void validate(Item item) {
+		if (item == null || item.getParticipants() == null) {
+			throw new BillException("ERRO1",
+					"Invalid bill format: Missing or incorrect attributes. Please review and resubmit.");
+		}
+		item.setParticipantKeys(BillService.participantKeys(item));
+	}
+
+	private static Update participants(BillDetails bill) {
+		return new Update().set("participants", bill.getParticipants()).set("participantKeys",
+				bill.getParticipantKeys());
+	}
+
+	private static Update withParticipants(Update update, Item item) {
+		update.addToSet("participants").each(item.getParticipants().toArray());
+		update.addToSet("participantKeys").each(item.getParticipantKeys().toArray());
+		return update;
+	}
+}
@@ -0,0 +1,188 @@
+package com.mongo.bill_service.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.exception.BillConflictException;
+import com.mongo.bill_service.exception.BillException;
+import com.mongo.bill_service.repos.BillRepository;
+
+// Saves whole bills with optimistic concurrency: a bill is replaced only while it still has the
+// version the client read, checked in the replace itself, so editors never wait on a lock.
+@Service
+public class BillSaveService {
+
+	private static final int MAX_ATTEMPTS = 5;
+
+	private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+	private static final String CONFLICT = "Bill was changed by someone else: reload it and reapply your changes.";
+
+	private static final String DUPLICATE = "Another bill already has this store, bill number, date, time and totals.";
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	BillRepository billRepository;
+
+	@Autowired
+	BillService billService;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	public BillDetails save(BillDetails bill, boolean merge) {
+		return save(bill, merge, null);
+	}
+
+	// With merge, a save that only adds items is reapplied to the latest bill instead of conflicting.
+	// A new bill that repeats a stored one, by idempotency key or by fingerprint, returns the stored
+	// bill found with one indexed read; nothing is allocated or written for it.
+	public BillDetails save(BillDetails bill, boolean merge, String idempotencyKey) {
+		if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+			throw new BillException("ERRO9",
+					"Invalid Idempotency-Key: at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.");
+		}
+		prepare(bill);
+
+		if (bill.getBillId() < 1) {
+			bill.setIdempotencyKey(idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey);
+			BillDetails stored = findDuplicate(bill);
+			return stored != null ? stored : insert(bill);
+		}
+
+		// Taken before the first attempt, which assigns ids to the new items
+		List<Item> added = bill.getItems().stream().filter(t -> t.getItemId() < 1).toList();
+		long expected = bill.getVersion();
+		bill.setIdempotencyKey(storedIdempotencyKey(bill.getBillId()));
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			BillDetails previous;
+			try {
+				previous = mongoTemplate.findAndReplace(versionQuery(bill.getBillId(), expected), bill);
+			} catch (DuplicateKeyException e) {
+				throw new BillConflictException(DUPLICATE);
+			}
+			if (previous != null) {
+				eventPublisher.publishEvent(BillChangedEvent.saved(this, previous, bill));
+				return bill;
+			}
+
+			BillDetails current = billRepository.findById(bill.getBillId()).orElse(null);
+			if (current == null) {
+				// Saving under an id nobody has used yet, as the old upsert allowed
+				return insert(bill);
+			}
+			if (!merge || !onlyAdds(bill, added, current)) {
+				throw new BillConflictException(CONFLICT);
+			}
+
+			BillDetails merged = new BillDetails();
+			BeanUtils.copyProperties(current, merged);
+			List<Item> items = new ArrayList<Item>(current.getItems());
+			items.addAll(added);
+			merged.setItems(items);
+			prepare(merged);
+
+			bill = merged;
+			expected = current.getVersion();
+		}
+
+		throw new BillConflictException(CONFLICT);
+	}
+
+	private BillDetails insert(BillDetails bill) {
+		BillDetails saved;
+		try {
+			saved = billRepository.insert(bill);
+		} catch (DuplicateKeyException e) {
+			// A retry that got in first, or an id someone else took
+			BillDetails stored = findDuplicate(bill);
+			if (stored != null) {
+				return stored;
+			}
+			throw new BillConflictException(CONFLICT);
+		}
+		eventPublisher.publishEvent(BillChangedEvent.saved(this, null, saved));
+		return saved;
+	}
+
+	// Only ever set when the bill is inserted, so it holds for every attempt of a replace
+	private String storedIdempotencyKey(int billId) {
+		Query query = new Query(Criteria.where("_id").is(billId));
+		query.fields().include("idempotencyKey");
+		BillDetails stored = mongoTemplate.findOne(query, BillDetails.class);
+		return stored == null ? null : stored.getIdempotencyKey();
+	}
+
+	// Served by the unique idempotencyKey and fingerprint indexes
+	private BillDetails findDuplicate(BillDetails bill) {
+		List<Criteria> keys = new ArrayList<Criteria>();
+		if (bill.getIdempotencyKey() != null) {
+			keys.add(Criteria.where("idempotencyKey").is(bill.getIdempotencyKey()));
+		}
+		if (bill.getFingerprint() != null) {
+			keys.add(Criteria.where("fingerprint").is(bill.getFingerprint()));
+		}
+		if (keys.isEmpty()) {
+			return null;
+		}
+
+		return mongoTemplate.findOne(new Query(new Criteria().orOperator(keys)), BillDetails.class);
+	}
+
+	private void prepare(BillDetails bill) {
+		try {
+			billService.prepare(bill);
+		} catch (Exception e) {
+			throw new BillException("ERRO1",
+					"Invalid bill format: Missing or incorrect attributes. Please review and resubmit.");
+		}
+	}
+
+	// Bills stored before versioning have no version field at all
+	private static Query versionQuery(int billId, long version) {
+		Criteria unchanged = version == 0 ? Criteria.where("version").in(0, null)
+				: Criteria.where("version").is(version);
+		return new Query(Criteria.where("_id").is(billId).andOperator(unchanged));
+	}
+
+	// Whether the save differs from the stored bill only by the added items. Items others added in
+	// the meantime are kept; an item the save still has but the stored bill lost is a conflict.
+	private static boolean onlyAdds(BillDetails bill, List<Item> added, BillDetails current) {
+		Map<Integer, Item> stored = current.getItems().stream()
+				.collect(Collectors.toMap(Item::getItemId, Function.identity()));
+		for (Item item : bill.getItems()) {
+			if (!added.contains(item) && !item.equals(stored.get(item.getItemId()))) {
+				return false;
+			}
+		}
+
+		return Objects.equals(bill.getStore(), current.getStore())
+				&& Objects.equals(bill.getAddress(), current.getAddress())
+				&& Objects.equals(bill.getPhone(), current.getPhone())
+				&& Objects.equals(bill.getBillNumber(), current.getBillNumber())
+				&& Objects.equals(bill.getBillDate(), current.getBillDate())
+				&& Objects.equals(bill.getTime(), current.getTime())
+				&& Objects.equals(bill.getCashier(), current.getCashier())
+				&& Objects.equals(bill.getPaidBy(), current.getPaidBy())
+				&& Objects.equals(bill.getExtraPrices(), current.getExtraPrices());
+	}
+}
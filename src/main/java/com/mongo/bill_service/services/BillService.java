@@ -0,0 +1,206 @@
+package com.mongo.bill_service.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.PriceBreakdown;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.money.Money;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class BillService {
+
+	// Bump whenever split() changes, then run POST /admin/splits/recompute to refresh stored splits
+	public static final int SPLIT_VERSION = 3;
+
+	// Derives participants, totals and the normalized date/time shared by every write path
+	public BillDetails prepare(BillDetails bill) {
+
+		String billDateReq = bill.getBillDate();
+		LocalDate dateReq = LocalDate.parse(billDateReq, Consts.DATE_FORMATTER);
+		bill.setBillDate(dateReq.format(Consts.DATE_FORMATTER));
+
+		String billTimeReq = bill.getTime();
+		LocalTime timeReq = LocalTime.parse(billTimeReq, Consts.TIME_FORMATTER);
+		bill.setTime(timeReq.format(Consts.TIME_FORMATTER));
+		bill.setBillTimestamp(LocalDateTime.of(dateReq, timeReq));
+
+		return derive(bill);
+	}
+
+	// Everything prepare() derives from the items and charges; the date and time are taken as stored,
+	// so it doesn't fail for bills saved before they were validated
+	public BillDetails derive(BillDetails bill) {
+
+		// Process sum
+		long sum = bill.getItems().stream().mapToLong(Item::getValue).sum() + charges(bill);
+
+		// Process total quantity
+		int quant = bill.getItems().stream().map(t -> String.valueOf(t.getQuantity()))
+				.mapToInt(Integer::valueOf).sum();
+
+		// Process participants, one name per participant key
+		Map<String, String> names = participantNames(bill);
+		Set<String> participants = new LinkedHashSet<String>(names.values());
+
+		// Process participant keys
+		for (Item item : bill.getItems()) {
+			item.setParticipantKeys(participantKeys(item));
+		}
+		Set<String> participantKeys = new HashSet<String>(names.keySet());
+
+		int totalItems = bill.getItems().size();
+		bill.setParticipants(participants);
+		bill.setParticipantKeys(participantKeys);
+		bill.setTotalValue(sum);
+		bill.setTotalQuantity(quant);
+		bill.setTotalItems(totalItems);
+
+		bill.setSplits(split(bill));
+		bill.setSplitVersion(SPLIT_VERSION);
+		bill.setFingerprint(fingerprint(bill));
+
+		return bill;
+	}
+
+	// Store, bill number, date/time and totals of a prepared bill, hashed to keep the unique index small.
+	// Null without a bill number: two such bills with equal totals may well be two purchases.
+	public static String fingerprint(BillDetails bill) {
+		if (bill.getBillNumber() == null || bill.getBillNumber().isBlank()) {
+			return null;
+		}
+
+		String naturalKey = String.join("|", bill.getStore() == null ? "" : Consts.participantKey(bill.getStore()),
+				bill.getBillNumber().trim(), String.valueOf(bill.getBillTimestamp()), String.valueOf(bill.getTotalValue()),
+				String.valueOf(bill.getTotalItems()), String.valueOf(bill.getTotalQuantity()));
+		return DigestUtils.md5DigestAsHex(naturalKey.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// The split stored with the bill, unless it was never stored or came from an older algorithm
+	public List<Split> currentSplit(BillDetails bill) {
+		if (bill.getSplits() != null && bill.getSplitVersion() == SPLIT_VERSION) {
+			return bill.getSplits();
+		}
+		return split(bill);
+	}
+
+	public List<Split> split(BillDetails bill) {
+
+		// Each item is shared equally, leftover paise go to the participants listed first. Spellings of
+		// one name share a participant key and so one split, under the name of participantNames.
+		Map<String, String> names = participantNames(bill);
+		Map<String, Split> split = new LinkedHashMap<String, Split>();
+		long total = charges(bill);
+		for (Item item : bill.getItems()) {
+			total += item.getValue();
+			List<String> keys = participantKeys(item);
+			long[] shares = Money.split(item.getValue(), keys.size());
+			for (int i = 0; i < shares.length; i++) {
+				Split sp = new Split(names.get(keys.get(i)), shares[i], 1);
+				split.merge(keys.get(i), sp, BillService::mergeSplit);
+			}
+		}
+
+		if (split.isEmpty()) {
+			return new ArrayList<Split>();
+		}
+
+		// Extra charges, and items nobody was assigned, are spread in proportion to the item shares
+		// with a largest remainder allocation, so the shares add up to the bill total to the paisa
+		List<Split> result = new ArrayList<Split>(split.values());
+		long[] weights = new long[result.size()];
+		long assigned = 0;
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = result.get(i).getSplit();
+			assigned += weights[i];
+		}
+
+		long[] adjustments = Money.allocate(total - assigned, weights);
+		for (int i = 0; i < adjustments.length; i++) {
+			result.get(i).setSplit(result.get(i).getSplit() + adjustments[i]);
+		}
+
+		return result;
+	}
+
+	// Net of the extra charges in paise: tax and extra charges add, discount and cashback subtract
+	private static long charges(BillDetails bill) {
+		long net = 0;
+		for (PriceBreakdown currCharge : bill.getExtraPrices()) {
+			PriceBreakdown.Types chargeType = currCharge.getType();
+
+			switch (chargeType) {
+			case DISCOUNT:
+				net -= currCharge.getValue();
+				break;
+			case TAX:
+				net += currCharge.getValue();
+				break;
+			case EXTRA_CHARGES:
+				net += currCharge.getValue();
+				break;
+			case CASHBACK:
+				net -= currCharge.getValue();
+				break;
+			default:
+				log.warn("Ignored charge {} of unknown type {}", currCharge.getName(), chargeType);
+				break;
+			}
+		}
+		return net;
+	}
+
+	// Items per participant in one pass, under the same names as the split; names match on their participant
+	// key like the per-person items query
+	public Map<String, List<Item>> itemsByParticipant(BillDetails bill) {
+
+		Map<String, String> names = participantNames(bill);
+		Map<String, List<Item>> result = new LinkedHashMap<String, List<Item>>();
+		for (Item item : bill.getItems()) {
+			for (String key : participantKeys(item)) {
+				result.computeIfAbsent(names.get(key), t -> new ArrayList<Item>()).add(item);
+			}
+		}
+		return result;
+	}
+
+	// Participant key to the name shown for it, the first spelling met going through the items in order
+	public static Map<String, String> participantNames(BillDetails bill) {
+		Map<String, String> names = new LinkedHashMap<String, String>();
+		for (Item item : bill.getItems()) {
+			for (String participant : item.getParticipants()) {
+				names.putIfAbsent(Consts.participantKey(participant), participant.trim());
+			}
+		}
+		return names;
+	}
+
+	// The participant keys of an item in the order listed, each once however many spellings share it
+	public static List<String> participantKeys(Item item) {
+		return item.getParticipants().stream().map(Consts::participantKey).distinct().toList();
+	}
+
+	public static Split mergeSplit(Split old, Split latest) {
+		old.setSplit(old.getSplit() + latest.getSplit());
+		old.setItemcount(old.getItemcount() + latest.getItemcount());
+		return old;
+	}
+}
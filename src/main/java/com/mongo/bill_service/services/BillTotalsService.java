@@ -0,0 +1,263 @@
+package com.mongo.bill_service.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Totals over the stored bills, moved by $inc deltas as bills change and rebuilt from the bills when
+// needed. A rebuild sums into a staging collection renamed over the live one once complete, so readers
+// keep the old totals meanwhile; changes applied while it runs are replayed onto the staging totals.
+@Slf4j
+public abstract class BillTotalsService<T> {
+
+	private static final int BATCH_SIZE = 500;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	TaskExecutor taskExecutor;
+
+	private final Class<T> type;
+
+	// Shared by the changes being applied, held alone by a rebuild while it replays them and renames
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Changes applied since the running rebuild started, null while none runs
+	private volatile Queue<BillChangedEvent> recorded;
+
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+	protected BillTotalsService(Class<T> type) {
+		this.type = type;
+	}
+
+	// Adds the bill's amounts times sign to the totals it counts towards, keyed by their _id
+	protected abstract void contribute(Map<String, T> totals, BillDetails bill, int sign);
+
+	// The upsert adding a delta to the stored totals, null when it adds nothing
+	protected abstract Update increment(T delta);
+
+	protected abstract String id(T totals);
+
+	// Sums every stored bill into totals with sum(totals, query, counted)
+	protected abstract long sum(Map<String, T> totals, CountedBills counted);
+
+	public void apply(BillChangedEvent event) {
+		lock.readLock().lock();
+		try {
+			Queue<BillChangedEvent> rebuilding = recorded;
+			if (rebuilding != null) {
+				rebuilding.add(event);
+			}
+			write(mongoTemplate.getCollectionName(type), deltas(event.getRemoved(), event.getAdded()));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// For the listeners: a change that fails to apply must neither fail the request that stored the
+	// bills nor keep the other listeners from running. The totals then miss it until a rebuild.
+	public void applyOrRebuild(BillChangedEvent event) {
+		try {
+			apply(event);
+		} catch (RuntimeException e) {
+			log.error("Bill change not applied to {}, scheduling a rebuild", type.getSimpleName(), e);
+			scheduleRebuild();
+		}
+	}
+
+	// Failures while a rebuild is waiting to start share it
+	private void scheduleRebuild() {
+		if (rebuildScheduled.compareAndSet(false, true)) {
+			taskExecutor.execute(() -> {
+				rebuildScheduled.set(false);
+				try {
+					rebuild();
+				} catch (RuntimeException e) {
+					log.error("Rebuild of {} failed", type.getSimpleName(), e);
+				}
+			});
+		}
+	}
+
+	// Replaces the totals with ones summed from every stored bill. Needed when they are first created,
+	// after the split algorithm changes and after a change failed to apply. One runs at a time.
+	public synchronized long rebuild() {
+		String live = mongoTemplate.getCollectionName(type);
+		String staging = live + "_rebuild";
+
+		Queue<BillChangedEvent> events = new ConcurrentLinkedQueue<BillChangedEvent>();
+		lock.writeLock().lock();
+		try {
+			recorded = events;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		try {
+			Map<String, T> totals = new HashMap<String, T>();
+			CountedBills counted = new CountedBills();
+			long bills = sum(totals, counted);
+
+			mongoTemplate.dropCollection(staging);
+			mongoTemplate.createCollection(staging);
+			List<T> batch = new ArrayList<T>(BATCH_SIZE);
+			for (T total : totals.values()) {
+				batch.add(total);
+				if (batch.size() == BATCH_SIZE) {
+					mongoTemplate.insert(batch, staging);
+					batch.clear();
+				}
+			}
+			mongoTemplate.insert(batch, staging);
+
+			IndexOperations indexOps = mongoTemplate.indexOps(staging);
+			new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+					.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+
+			lock.writeLock().lock();
+			try {
+				write(staging, replay(events, counted));
+				mongoTemplate.getCollection(staging).renameCollection(
+						new MongoNamespace(mongoTemplate.getDb().getName(), live),
+						new RenameCollectionOptions().dropTarget(true));
+				recorded = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+			log.info("Rebuilt {} with {} totals from {} bills", live, totals.size(), bills);
+			return bills;
+		} finally {
+			recorded = null;
+		}
+	}
+
+	// Streams the bills in _id order into totals, noting the version each was read at
+	protected long sum(Map<String, T> totals, Query query, CountedBills counted) {
+		query.with(Sort.by("_id").ascending()).fields().include("version");
+
+		long bills = 0;
+		try (Stream<BillDetails> stream = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) stream::iterator) {
+				contribute(totals, bill, 1);
+				counted.add(bill.getBillId(), bill.getVersion());
+				bills++;
+			}
+		}
+		return bills;
+	}
+
+	// Every bill version a replayed change removed or added, once. The version ends up counted when a
+	// change added it and none removed it, while the staging totals count it when the sum read it; the
+	// difference is what moves, whatever order the changes ran in and wherever the sum was meanwhile.
+	private Map<String, T> replay(Collection<BillChangedEvent> events, CountedBills counted) {
+		Map<String, BillDetails> states = new HashMap<String, BillDetails>();
+		Set<String> removed = new HashSet<String>();
+		for (BillChangedEvent event : events) {
+			for (BillDetails bill : event.getRemoved()) {
+				states.putIfAbsent(bill.getBillId() + "|" + bill.getVersion(), bill);
+				removed.add(bill.getBillId() + "|" + bill.getVersion());
+			}
+			for (BillDetails bill : event.getAdded()) {
+				states.putIfAbsent(bill.getBillId() + "|" + bill.getVersion(), bill);
+			}
+		}
+
+		Map<String, T> deltas = new HashMap<String, T>();
+		for (Entry<String, BillDetails> state : states.entrySet()) {
+			BillDetails bill = state.getValue();
+			int sign = (removed.contains(state.getKey()) ? 0 : 1)
+					- (counted.contains(bill.getBillId(), bill.getVersion()) ? 1 : 0);
+			if (sign != 0) {
+				contribute(deltas, bill, sign);
+			}
+		}
+		return deltas;
+	}
+
+	private Map<String, T> deltas(List<BillDetails> removed, List<BillDetails> added) {
+		Map<String, T> deltas = new HashMap<String, T>();
+		removed.forEach(t -> contribute(deltas, t, -1));
+		added.forEach(t -> contribute(deltas, t, 1));
+		return deltas;
+	}
+
+	private void write(String collection, Map<String, T> deltas) {
+		BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, type, collection);
+		int pending = 0;
+		for (T delta : deltas.values()) {
+			Update update = increment(delta);
+			if (update != null) {
+				ops.upsert(new Query(Criteria.where("_id").is(id(delta))), update);
+				pending++;
+			}
+		}
+
+		if (pending > 0) {
+			ops.execute();
+		}
+	}
+
+	// Bill ids in ascending order with the version each was summed at, 12 bytes a bill
+	protected static class CountedBills {
+
+		private int[] ids = new int[1024];
+		private long[] versions = new long[1024];
+		private int size;
+
+		// Ids above all those already added
+		public void add(int id, long version) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				versions = Arrays.copyOf(versions, size * 2);
+			}
+			ids[size] = id;
+			versions[size++] = version;
+		}
+
+		public void addAll(CountedBills other) {
+			for (int i = 0; i < other.size; i++) {
+				add(other.ids[i], other.versions[i]);
+			}
+		}
+
+		public boolean contains(int id, long version) {
+			int i = Arrays.binarySearch(ids, 0, size, id);
+			return i >= 0 && versions[i] == version;
+		}
+	}
+}
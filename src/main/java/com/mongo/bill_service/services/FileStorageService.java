@@ -0,0 +1,76 @@
+package com.mongo.bill_service.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.mongo.bill_service.documents.MyFile;
+import com.mongo.bill_service.repos.FileRepository;
+import com.mongodb.client.gridfs.model.GridFSFile;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// File contents live in GridFS chunks; the filesRepo document only keeps the metadata and a
+// pointer to them. Documents stored before that still carry their bytes inline in data.
+@Service
+public class FileStorageService {
+
+	@Autowired
+	GridFsOperations gridFsOperations;
+
+	@Autowired
+	FileRepository fileRepository;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	public MyFile store(MultipartFile upload) throws IOException {
+
+		ObjectId storageId;
+		try (InputStream in = upload.getInputStream()) {
+			storageId = gridFsOperations.store(in, upload.getOriginalFilename(), upload.getContentType());
+		}
+
+		MyFile file = new MyFile();
+		file.setFileName(upload.getOriginalFilename());
+		file.setContentType(upload.getContentType());
+		file.setContentLength(upload.getSize());
+		file.setStorageId(storageId.toHexString());
+
+		DistributionSummary.builder("bill.upload.size").baseUnit("bytes").register(meterRegistry)
+				.record(upload.getSize());
+
+		try {
+			return fileRepository.save(file);
+		} catch (RuntimeException e) {
+			// Don't leave chunks behind that no document points to
+			gridFsOperations.delete(byId(storageId));
+			throw e;
+		}
+	}
+
+	public InputStream open(MyFile file) throws IOException {
+		if (file.getStorageId() == null) {
+			return new ByteArrayInputStream(file.getData());
+		}
+
+		GridFSFile stored = gridFsOperations.findOne(byId(new ObjectId(file.getStorageId())));
+		if (stored == null) {
+			throw new IOException("Contents of file " + file.getFileId() + " are missing");
+		}
+		return gridFsOperations.getResource(stored).getInputStream();
+	}
+
+	private static Query byId(ObjectId id) {
+		return new Query(Criteria.where("_id").is(id));
+	}
+}
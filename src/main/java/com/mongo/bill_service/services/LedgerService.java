@@ -0,0 +1,87 @@
+package com.mongo.bill_service.services;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.LedgerEntry;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.repos.LedgerRepository;
+
+// Per-participant totals kept up to date with $inc deltas as bills change, so a balance is one
+// document read. A bill's share comes from BillService.currentSplit, the same as every other reader.
+@Service
+public class LedgerService extends BillTotalsService<LedgerEntry> {
+
+	@Autowired
+	LedgerRepository ledgerRepository;
+
+	@Autowired
+	BillService billService;
+
+	public LedgerService() {
+		super(LedgerEntry.class);
+	}
+
+	public LedgerEntry balance(String name) {
+		String key = Consts.participantKey(name);
+		return ledgerRepository.findById(key).orElse(new LedgerEntry(key, name, 0, 0, 0));
+	}
+
+	@Override
+	protected long sum(Map<String, LedgerEntry> totals, CountedBills counted) {
+		Query query = new Query();
+		query.fields().include("items", "extraPrices", "splits", "splitVersion", "paidBy");
+		return sum(totals, query, counted);
+	}
+
+	// The payer is paid what the split shares add up to, so the balances of a bill always net to zero;
+	// a bill nobody was assigned to owes and pays nothing
+	@Override
+	protected void contribute(Map<String, LedgerEntry> entries, BillDetails bill, int sign) {
+		Set<String> counted = new HashSet<String>();
+
+		long shares = 0;
+		for (Split split : billService.currentSplit(bill)) {
+			LedgerEntry entry = entry(entries, split.getName());
+			entry.setOwed(entry.getOwed() + sign * split.getSplit());
+			shares += split.getSplit();
+			if (counted.add(entry.getParticipantKey())) {
+				entry.setBills(entry.getBills() + sign);
+			}
+		}
+
+		if (bill.getPaidBy() != null && !bill.getPaidBy().isBlank()) {
+			LedgerEntry entry = entry(entries, bill.getPaidBy());
+			entry.setPaid(entry.getPaid() + sign * shares);
+			if (counted.add(entry.getParticipantKey())) {
+				entry.setBills(entry.getBills() + sign);
+			}
+		}
+	}
+
+	@Override
+	protected Update increment(LedgerEntry delta) {
+		if (delta.getBills() == 0 && delta.getOwed() == 0 && delta.getPaid() == 0) {
+			return null;
+		}
+		return new Update().setOnInsert("name", delta.getName()).inc("bills", delta.getBills())
+				.inc("owed", delta.getOwed()).inc("paid", delta.getPaid());
+	}
+
+	@Override
+	protected String id(LedgerEntry entry) {
+		return entry.getParticipantKey();
+	}
+
+	private static LedgerEntry entry(Map<String, LedgerEntry> entries, String name) {
+		return entries.computeIfAbsent(Consts.participantKey(name), t -> new LedgerEntry(t, name.trim(), 0, 0, 0));
+	}
+}
@@ -0,0 +1,90 @@
+package com.mongo.bill_service.services;
+
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.documents.BillDetails;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Rewrites bills stored with rupee doubles in paise. BillListener has already converted the amounts
+// while the bill was read; each bill is written only while it still has the version it was read at,
+// so one changed in the meantime is read again by the next run rather than overwritten.
+@Slf4j
+@Service
+public class PaiseMigrationService {
+
+	private static final int BATCH_SIZE = 500;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	BillService billService;
+
+	// Every write path sets totalValue in paise, a double is left only on bills not migrated yet
+	public static Criteria inRupees() {
+		return Criteria.where("totalValue").type(JsonSchemaObject.Type.doubleType());
+	}
+
+	public static Criteria inPaise() {
+		return Criteria.where("totalValue").not().type(JsonSchemaObject.Type.doubleType());
+	}
+
+	public long migrateAll() {
+		long updated = 0;
+		BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+		int pending = 0;
+
+		try (Stream<BillDetails> bills = mongoTemplate.stream(new Query(inRupees()), BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) bills::iterator) {
+				ops.updateOne(unchanged(bill), migrated(bill));
+
+				if (++pending == BATCH_SIZE) {
+					updated += ops.execute().getModifiedCount();
+					ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+					pending = 0;
+				}
+			}
+		}
+
+		if (pending > 0) {
+			updated += ops.execute().getModifiedCount();
+		}
+
+		if (updated > 0) {
+			log.info("Migrated amounts to paise on {} bills", updated);
+		}
+		return updated;
+	}
+
+	// False when the bill doesn't exist, is already in paise, or changed while it was migrated
+	public boolean migrate(int billId) {
+		BillDetails bill = mongoTemplate.findOne(new Query(Criteria.where("_id").is(billId).andOperator(inRupees())),
+				BillDetails.class);
+		return bill != null && mongoTemplate.updateFirst(unchanged(bill), migrated(bill), BillDetails.class)
+				.getModifiedCount() > 0;
+	}
+
+	// Bills stored before versioning have no version field at all
+	private static Query unchanged(BillDetails bill) {
+		Criteria version = bill.getVersion() == 0 ? Criteria.where("version").in(0, null)
+				: Criteria.where("version").is(bill.getVersion());
+		return new Query(Criteria.where("_id").is(bill.getBillId()).andOperator(inRupees(), version));
+	}
+
+	private Update migrated(BillDetails bill) {
+		return new Update().set("totalValue", bill.getTotalValue()).set("items", bill.getItems())
+				.set("extraPrices", bill.getExtraPrices()).set("splits", billService.split(bill))
+				.set("splitVersion", BillService.SPLIT_VERSION);
+	}
+}
@@ -0,0 +1,232 @@
+package com.mongo.bill_service.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.excel.ExcelStyles;
+import com.mongo.bill_service.excel.SheetWriter;
+import com.mongo.bill_service.money.Money;
+
+// Period report over many bills. Bills come off a Mongo cursor and their line items are streamed
+// into the workbook as they arrive; only the per-store and per-participant totals stay in memory.
+@Service
+public class ReportService {
+
+	private static final int CURSOR_BATCH_SIZE = 200;
+
+	private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+	private static final String[] LINE_HEADERS = { "Bill Id", "Bill Date", "Time", "Store", "Paid By", "Item ID",
+			"Name", "Quantity", "Rate", "Value", "Participants" };
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	BillService billService;
+
+	public void writeReport(Workbook workbook, LocalDate from, LocalDate to) {
+
+		ExcelStyles styles = new ExcelStyles(workbook);
+
+		// Created up front so the tabs appear in this order; filled once all bills are read
+		SheetWriter summary = new SheetWriter(workbook.createSheet("Summary"), 2);
+		SheetWriter stores = new SheetWriter(workbook.createSheet("Stores"), 5);
+		SheetWriter participants = new SheetWriter(workbook.createSheet("Participants"), 6);
+
+		// Keyed like the fingerprint and the ledger, named as first seen
+		Map<String, StoreTotals> storeTotals = new TreeMap<String, StoreTotals>();
+		Map<String, ParticipantTotals> participantTotals = new TreeMap<String, ParticipantTotals>();
+		StoreTotals overall = new StoreTotals("All Stores");
+
+		int lineSheets = 1;
+		SheetWriter lines = addLineSheet(workbook, styles, "Line Items");
+		int rowNum = 1;
+
+		Query query = new Query(
+				Criteria.where("billTimestamp").gte(from.atStartOfDay()).lt(to.plusDays(1).atStartOfDay()))
+				.with(Sort.by(Sort.Direction.ASC, "billTimestamp", "_id")).cursorBatchSize(CURSOR_BATCH_SIZE);
+
+		try (Stream<BillDetails> bills = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) bills::iterator) {
+
+				overall.add(bill);
+				String store = bill.getStore() == null ? "" : bill.getStore();
+				storeTotals.computeIfAbsent(Consts.participantKey(store), t -> new StoreTotals(store.trim())).add(bill);
+
+				// The payer is paid what the shares add up to, as in the ledger, so the balances net to zero
+				long shared = 0;
+				for (Split split : billService.currentSplit(bill)) {
+					ParticipantTotals totals = participant(participantTotals, split.getName());
+					totals.bills++;
+					totals.items += split.getItemcount();
+					totals.share += split.getSplit();
+					shared += split.getSplit();
+				}
+				if (bill.getPaidBy() != null && !bill.getPaidBy().isBlank()) {
+					participant(participantTotals, bill.getPaidBy()).paid += shared;
+				}
+
+				for (Item item : bill.getItems()) {
+					// A sheet holds about a million rows, continue on the next one
+					if (rowNum == MAX_ROWS) {
+						lines.finish();
+						lines = addLineSheet(workbook, styles, "Line Items " + ++lineSheets);
+						rowNum = 1;
+					}
+
+					int colNum = 0;
+					Row row = lines.row(rowNum++);
+					lines.cell(row, colNum++, bill.getBillId(), styles.getBorder());
+					lines.cell(row, colNum++, bill.getBillDate(), styles.getBorder());
+					lines.cell(row, colNum++, bill.getTime(), styles.getBorder());
+					lines.cell(row, colNum++, bill.getStore(), styles.getBorder());
+					lines.cell(row, colNum++, bill.getPaidBy(), styles.getBorder());
+					lines.cell(row, colNum++, item.getItemId(), styles.getBorder());
+					lines.cell(row, colNum++, item.getName(), styles.getBorder());
+					lines.cell(row, colNum++, item.getQuantity(), styles.getBorder());
+					lines.money(row, colNum++, item.getRate(), styles.getBorder());
+					lines.money(row, colNum++, item.getValue(), styles.getBorder());
+					lines.cell(row, colNum++, String.join(", ", item.getParticipants()), styles.getBorder());
+				}
+			}
+		}
+
+		lines.finish();
+
+		writeSummary(summary, styles, from, to, overall, storeTotals.size(), participantTotals.size());
+		writeStores(stores, styles, storeTotals);
+		writeParticipants(participants, styles, participantTotals);
+	}
+
+	private static ParticipantTotals participant(Map<String, ParticipantTotals> participantTotals, String name) {
+		return participantTotals.computeIfAbsent(Consts.participantKey(name), t -> new ParticipantTotals(name.trim()));
+	}
+
+	private SheetWriter addLineSheet(Workbook workbook, ExcelStyles styles, String sheetName) {
+		SheetWriter sheet = new SheetWriter(workbook.createSheet(sheetName), LINE_HEADERS.length);
+		Row headerRow = sheet.row(0);
+		for (int i = 0; i < LINE_HEADERS.length; i++) {
+			sheet.cell(headerRow, i, LINE_HEADERS[i], styles.getHeader());
+		}
+		return sheet;
+	}
+
+	private void writeSummary(SheetWriter sheet, ExcelStyles styles, LocalDate from, LocalDate to,
+			StoreTotals overall, int storeCount, int participantCount) {
+
+		int rowNum = 0;
+		sheet.cell(sheet.row(rowNum++), 0, "Bills Report", styles.getBold());
+
+		String[][] rows = { { "From", from.format(Consts.DATE_FORMATTER) },
+				{ "To", to.format(Consts.DATE_FORMATTER) },
+				{ "Generated", LocalDateTime.now().format(Consts.DATE_FORMATTER) },
+				{ "Bills", String.valueOf(overall.bills) }, { "Line Items", String.valueOf(overall.items) },
+				{ "Total Quantity", String.valueOf(overall.quantity) },
+				{ "Total Value", "₹ " + Money.format(overall.value) },
+				{ "Stores", String.valueOf(storeCount) }, { "Participants", String.valueOf(participantCount) } };
+
+		rowNum++;
+		for (String[] values : rows) {
+			Row row = sheet.row(rowNum++);
+			sheet.cell(row, 0, values[0], styles.getHeader());
+			sheet.cell(row, 1, values[1], styles.getBorder());
+		}
+
+		sheet.finish();
+	}
+
+	private void writeStores(SheetWriter sheet, ExcelStyles styles, Map<String, StoreTotals> storeTotals) {
+
+		String[] headers = { "Store", "Bills", "Items", "Quantity", "Total Value" };
+		Row headerRow = sheet.row(0);
+		for (int i = 0; i < headers.length; i++) {
+			sheet.cell(headerRow, i, headers[i], styles.getHeader());
+		}
+
+		int rowNum = 1;
+		for (StoreTotals store : storeTotals.values()) {
+			int colNum = 0;
+			Row row = sheet.row(rowNum++);
+			sheet.cell(row, colNum++, store.name, styles.getBorder());
+			sheet.cell(row, colNum++, store.bills, styles.getBorder());
+			sheet.cell(row, colNum++, store.items, styles.getBorder());
+			sheet.cell(row, colNum++, store.quantity, styles.getBorder());
+			sheet.money(row, colNum++, store.value, styles.getBorder());
+		}
+
+		sheet.finish();
+	}
+
+	private void writeParticipants(SheetWriter sheet, ExcelStyles styles,
+			Map<String, ParticipantTotals> participantTotals) {
+
+		String[] headers = { "Name", "Bills", "Items", "Share", "Paid", "Balance" };
+		Row headerRow = sheet.row(0);
+		for (int i = 0; i < headers.length; i++) {
+			sheet.cell(headerRow, i, headers[i], styles.getHeader());
+		}
+
+		int rowNum = 1;
+		for (ParticipantTotals totals : participantTotals.values()) {
+			int colNum = 0;
+			Row row = sheet.row(rowNum++);
+			sheet.cell(row, colNum++, totals.name, styles.getBorder());
+			sheet.cell(row, colNum++, totals.bills, styles.getBorder());
+			sheet.cell(row, colNum++, totals.items, styles.getBorder());
+			sheet.money(row, colNum++, totals.share, styles.getBorder());
+			sheet.money(row, colNum++, totals.paid, styles.getBorder());
+			sheet.money(row, colNum++, totals.paid - totals.share, styles.getBorder());
+		}
+
+		sheet.finish();
+	}
+
+	private static class StoreTotals {
+		final String name;
+		long bills;
+		long items;
+		long quantity;
+		long value;
+
+		StoreTotals(String name) {
+			this.name = name;
+		}
+
+		void add(BillDetails bill) {
+			bills++;
+			items += bill.getItems().size();
+			quantity += bill.getTotalQuantity();
+			value += bill.getTotalValue();
+		}
+	}
+
+	private static class ParticipantTotals {
+		final String name;
+		long bills;
+		long items;
+		long share;
+		long paid;
+
+		ParticipantTotals(String name) {
+			this.name = name;
+		}
+	}
+}
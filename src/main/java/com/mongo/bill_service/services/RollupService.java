@@ -0,0 +1,167 @@
+package com.mongo.bill_service.services;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Rollup;
+import com.mongo.bill_service.documents.Rollup.Kinds;
+import com.mongo.bill_service.entities.Split;
+
+// Monthly totals per store and per participant, changed by $inc deltas as bills change so the
+// analytics read a few small documents instead of the bills. Bills without a billTimestamp have no month.
+@Service
+public class RollupService extends BillTotalsService<Rollup> {
+
+	@Autowired
+	BillService billService;
+
+	@Value("${bill.rollups.rebuild-parallelism}")
+	int parallelism;
+
+	public RollupService() {
+		super(Rollup.class);
+	}
+
+	// Months from and to inclusive, either may be null; key null for every store or participant
+	public List<Rollup> find(Kinds kind, String name, YearMonth from, YearMonth to) {
+		Criteria criteria = Criteria.where("kind").is(kind);
+		if (name != null) {
+			criteria.and("key").is(Consts.participantKey(name));
+		}
+		if (from != null || to != null) {
+			Criteria month = criteria.and("month");
+			if (from != null) {
+				month.gte(from.toString());
+			}
+			if (to != null) {
+				month.lte(to.toString());
+			}
+		}
+
+		// Buckets whose bills were all deleted stay behind with nothing in them
+		criteria.and("bills").gt(0);
+
+		Query query = new Query(criteria).with(Sort.by("month").ascending().and(Sort.by("amount").descending()));
+		return mongoTemplate.find(query, Rollup.class);
+	}
+
+	// The bill ids are cut into ranges read and summed in parallel
+	@Override
+	protected long sum(Map<String, Rollup> totals, CountedBills counted) {
+		BillDetails first = mongoTemplate.findOne(idBound(Sort.Direction.ASC), BillDetails.class);
+		BillDetails last = mongoTemplate.findOne(idBound(Sort.Direction.DESC), BillDetails.class);
+		if (first == null || last == null) {
+			return 0;
+		}
+
+		long span = (long) last.getBillId() - first.getBillId() + 1;
+		int ranges = (int) Math.max(1, Math.min(parallelism, span));
+
+		List<CompletableFuture<Map<String, Rollup>>> sums = new ArrayList<CompletableFuture<Map<String, Rollup>>>();
+		long[] bills = new long[ranges];
+		CountedBills[] read = new CountedBills[ranges];
+		for (int i = 0; i < ranges; i++) {
+			int range = i;
+			int from = (int) (first.getBillId() + span * i / ranges);
+			int to = (int) (first.getBillId() + span * (i + 1) / ranges);
+			read[range] = new CountedBills();
+			sums.add(CompletableFuture.supplyAsync(() -> {
+				Map<String, Rollup> sum = new HashMap<String, Rollup>();
+				bills[range] = sum(sum, from, to, read[range]);
+				return sum;
+			}, taskExecutor));
+		}
+
+		long total = 0;
+		for (int i = 0; i < ranges; i++) {
+			merge(totals, sums.get(i).join());
+			counted.addAll(read[i]);
+			total += bills[i];
+		}
+		return total;
+	}
+
+	@Override
+	protected Update increment(Rollup delta) {
+		if (delta.getBills() == 0 && delta.getAmount() == 0) {
+			return null;
+		}
+		return new Update().setOnInsert("kind", delta.getKind()).setOnInsert("month", delta.getMonth())
+				.setOnInsert("key", delta.getKey()).setOnInsert("name", delta.getName()).inc("bills", delta.getBills())
+				.inc("amount", delta.getAmount());
+	}
+
+	@Override
+	protected String id(Rollup rollup) {
+		return rollup.getId();
+	}
+
+	private static Query idBound(Sort.Direction direction) {
+		Query query = new Query().with(Sort.by(direction, "_id"));
+		query.fields().include("_id");
+		return query;
+	}
+
+	// Bills with from <= billId < to
+	private long sum(Map<String, Rollup> totals, int from, int to, CountedBills counted) {
+		Query query = new Query(Criteria.where("_id").gte(from).lt(to));
+		query.fields().include("store", "billTimestamp", "items", "extraPrices", "splits", "splitVersion",
+				"totalValue");
+		return sum(totals, query, counted);
+	}
+
+	private static void merge(Map<String, Rollup> totals, Map<String, Rollup> sum) {
+		for (Rollup rollup : sum.values()) {
+			Rollup total = totals.putIfAbsent(rollup.getId(), rollup);
+			if (total != null) {
+				total.setBills(total.getBills() + rollup.getBills());
+				total.setAmount(total.getAmount() + rollup.getAmount());
+			}
+		}
+	}
+
+	@Override
+	protected void contribute(Map<String, Rollup> rollups, BillDetails bill, int sign) {
+		if (bill.getBillTimestamp() == null) {
+			return;
+		}
+		String month = YearMonth.from(bill.getBillTimestamp()).toString();
+
+		if (bill.getStore() != null && !bill.getStore().isBlank()) {
+			Rollup rollup = rollup(rollups, Kinds.STORE, month, bill.getStore());
+			rollup.setBills(rollup.getBills() + sign);
+			rollup.setAmount(rollup.getAmount() + sign * bill.getTotalValue());
+		}
+
+		Set<String> counted = new HashSet<String>();
+		for (Split split : billService.currentSplit(bill)) {
+			Rollup rollup = rollup(rollups, Kinds.PARTICIPANT, month, split.getName());
+			rollup.setAmount(rollup.getAmount() + sign * split.getSplit());
+			if (counted.add(rollup.getKey())) {
+				rollup.setBills(rollup.getBills() + sign);
+			}
+		}
+	}
+
+	private static Rollup rollup(Map<String, Rollup> rollups, Kinds kind, String month, String name) {
+		String key = Consts.participantKey(name);
+		return rollups.computeIfAbsent(Rollup.id(kind, month, key),
+				t -> new Rollup(t, kind, month, key, name.trim(), 0, 0));
+	}
+}
@@ -0,0 +1,127 @@
+package com.mongo.bill_service.services;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.repos.SequenceRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Hands out ids from blocks reserved in the sequence collection, so a bill with N items costs
+// at most one round trip instead of N + 1. Unused ids of a block are lost on restart, leaving gaps.
+@Slf4j
+@Service
+public class SequenceAllocator {
+
+	@Autowired
+	SequenceRepository sequenceRepository;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${bill.sequence.block-size}")
+	int blockSize;
+
+	@Value("${bill.sequence.refill-threshold}")
+	int refillThreshold;
+
+	// Refills get a thread of their own. take waits for a refill holding the block's lock, and on the
+	// shared pool that wait could starve behind the very tasks taking ids, which then wait on the lock.
+	Executor refillExecutor = Executors.newSingleThreadExecutor(t -> {
+		Thread thread = new Thread(t, "sequence-refill");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Map<String, Block> blocks = new ConcurrentHashMap<String, Block>();
+
+	public int next(String sequence) {
+		return blocks.computeIfAbsent(sequence, Block::new).take(1)[0];
+	}
+
+	public int[] next(String sequence, int count) {
+		return blocks.computeIfAbsent(sequence, Block::new).take(count);
+	}
+
+	private final class Block {
+
+		private final String sequence;
+		private final ReentrantLock lock = new ReentrantLock();
+
+		// Current block is [next, last]; refill holds the block reserved in the background
+		private int next = 1;
+		private int last = 0;
+		private CompletableFuture<Integer> refill;
+
+		// Ids handed out, and blocks reserved, i.e. round trips to the sequence collection
+		private final Counter allocated;
+		private final Counter reserved;
+
+		Block(String sequence) {
+			this.sequence = sequence;
+			this.allocated = Counter.builder("bill.sequence.allocated").tag("sequence", sequence)
+					.register(meterRegistry);
+			this.reserved = Counter.builder("bill.sequence.reserved").tag("sequence", sequence)
+					.register(meterRegistry);
+		}
+
+		int[] take(int count) {
+			int[] ids = new int[count];
+			lock.lock();
+			try {
+				for (int i = 0; i < count; i++) {
+					if (next > last) {
+						nextBlock(count - i);
+					}
+					ids[i] = next++;
+				}
+
+				if (refill == null && last - next < refillThreshold) {
+					refill = CompletableFuture.supplyAsync(() -> reserve(blockSize), refillExecutor);
+				}
+			} finally {
+				lock.unlock();
+			}
+			allocated.increment(count);
+			return ids;
+		}
+
+		// Moves on to the block reserved in the background, or reserves one here when there is none or it
+		// failed; what a large take still needs after the background block comes in one round trip
+		private void nextBlock(int needed) {
+			CompletableFuture<Integer> pending = refill;
+			refill = null;
+			if (pending != null) {
+				try {
+					last = pending.join();
+					next = last - blockSize + 1;
+					return;
+				} catch (CompletionException e) {
+					log.warn("Background reservation for {} failed, retrying inline: {}", sequence, e.getMessage());
+				}
+			}
+
+			int size = Math.max(blockSize, needed);
+			last = reserve(size);
+			next = last - size + 1;
+		}
+
+		private int reserve(int size) {
+			int last = sequenceRepository.reserveBlock(sequence, size);
+			reserved.increment();
+			return last;
+		}
+	}
+}
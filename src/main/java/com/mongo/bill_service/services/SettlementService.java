@@ -0,0 +1,129 @@
+package com.mongo.bill_service.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.entities.Settlement;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.entities.Transfer;
+
+import lombok.AllArgsConstructor;
+
+// Who pays whom to settle a set of bills. Bills are read off a cursor and only one net balance
+// per participant is kept, so the cost in memory grows with participants, not bills.
+@Service
+public class SettlementService {
+
+	private static final int CURSOR_BATCH_SIZE = 200;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	BillService billService;
+
+	// Every given filter applies; participants selects the bills any of them took part in
+	public Settlement settle(List<Integer> billIds, LocalDate from, LocalDate to, List<String> participants) {
+
+		List<Criteria> filters = new ArrayList<Criteria>();
+		if (billIds != null && !billIds.isEmpty()) {
+			filters.add(Criteria.where("_id").in(billIds));
+		}
+		if (from != null) {
+			filters.add(Criteria.where("billTimestamp").gte(from.atStartOfDay()));
+		}
+		if (to != null) {
+			filters.add(Criteria.where("billTimestamp").lt(to.plusDays(1).atStartOfDay()));
+		}
+		if (participants != null && !participants.isEmpty()) {
+			filters.add(Criteria.where("participantKeys").in(participants.stream().map(Consts::participantKey).toList()));
+		}
+
+		Query query = new Query(new Criteria().andOperator(filters)).cursorBatchSize(CURSOR_BATCH_SIZE);
+		query.fields().include("items", "extraPrices", "splits", "splitVersion", "paidBy");
+
+		Map<String, Party> balances = new HashMap<String, Party>();
+		long bills = 0;
+		long skipped = 0;
+
+		try (Stream<BillDetails> stream = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) stream::iterator) {
+				bills++;
+				if (bill.getPaidBy() == null || bill.getPaidBy().isBlank()) {
+					skipped++;
+					continue;
+				}
+
+				// The payer gets back what the shares add up to, so the balances always net to zero
+				long shared = 0;
+				for (Split split : billService.currentSplit(bill)) {
+					party(balances, split.getName()).amount -= split.getSplit();
+					shared += split.getSplit();
+				}
+				party(balances, bill.getPaidBy()).amount += shared;
+			}
+		}
+
+		return new Settlement(bills, skipped, transfers(balances.values()));
+	}
+
+	// Greedy matching: the largest debtor pays the largest creditor until one of them is settled.
+	// Each step settles at least one participant, so there are fewer transfers than participants.
+	static List<Transfer> transfers(Iterable<Party> balances) {
+		Comparator<Party> largestFirst = Comparator.<Party>comparingLong(t -> t.amount).reversed()
+				.thenComparing(t -> t.name);
+		PriorityQueue<Party> creditors = new PriorityQueue<Party>(largestFirst);
+		PriorityQueue<Party> debtors = new PriorityQueue<Party>(largestFirst);
+
+		for (Party party : balances) {
+			if (party.amount > 0) {
+				creditors.add(new Party(party.name, party.amount));
+			} else if (party.amount < 0) {
+				debtors.add(new Party(party.name, -party.amount));
+			}
+		}
+
+		List<Transfer> transfers = new ArrayList<Transfer>();
+		while (!creditors.isEmpty() && !debtors.isEmpty()) {
+			Party creditor = creditors.poll();
+			Party debtor = debtors.poll();
+			long amount = Math.min(creditor.amount, debtor.amount);
+			transfers.add(new Transfer(debtor.name, creditor.name, amount));
+
+			creditor.amount -= amount;
+			debtor.amount -= amount;
+			if (creditor.amount > 0) {
+				creditors.add(creditor);
+			}
+			if (debtor.amount > 0) {
+				debtors.add(debtor);
+			}
+		}
+		return transfers;
+	}
+
+	private static Party party(Map<String, Party> balances, String name) {
+		return balances.computeIfAbsent(Consts.participantKey(name), t -> new Party(name.trim(), 0));
+	}
+
+	// A participant's net balance in paise, positive when they are owed
+	@AllArgsConstructor
+	static class Party {
+		final String name;
+		long amount;
+	}
+}
@@ -0,0 +1,98 @@
+package com.mongo.bill_service.services;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.repos.BillRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+
+// Split results per bill, tagged with the bill version they were computed from. A hit costs a
+// projected read of the version instead of loading the bill and recomputing every share.
+@Service
+public class SplitCache {
+
+	@Autowired
+	BillRepository billRepository;
+
+	@Autowired
+	BillService billService;
+
+	@Value("${bill.split-cache.max-size}")
+	long maxSize;
+
+	@Value("${bill.split-cache.ttl-minutes}")
+	long ttlMinutes;
+
+	private Cache<Integer, Entry> cache;
+
+	@PostConstruct
+	void init() {
+		cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+				.recordStats().build();
+	}
+
+	// Version as read by the caller with BillRepository.findVersion, null when the bill doesn't exist
+	public List<Split> get(int billId, Long version) {
+		if (version != null) {
+			Entry entry = cache.getIfPresent(billId);
+			if (entry != null && entry.version == version) {
+				return entry.splits;
+			}
+		}
+		return compute(billRepository.findById(billId).get());
+	}
+
+	// For callers that already hold the bill
+	public List<Split> get(BillDetails bill) {
+		Entry entry = cache.getIfPresent(bill.getBillId());
+		if (entry != null && entry.version == bill.getVersion()) {
+			return entry.splits;
+		}
+		return compute(bill);
+	}
+
+	private List<Split> compute(BillDetails bill) {
+		List<Split> splits = List.copyOf(billService.currentSplit(bill));
+		cache.put(bill.getBillId(), new Entry(bill.getVersion(), splits));
+		return splits;
+	}
+
+	public void evict(int billId) {
+		cache.invalidate(billId);
+	}
+
+	public void evictAll() {
+		cache.invalidateAll();
+	}
+
+	public Map<String, Object> stats() {
+		CacheStats stats = cache.stats();
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("size", cache.estimatedSize());
+		result.put("maxSize", maxSize);
+		result.put("hitCount", stats.hitCount());
+		result.put("missCount", stats.missCount());
+		result.put("hitRate", stats.hitRate());
+		result.put("evictionCount", stats.evictionCount());
+		return result;
+	}
+
+	@AllArgsConstructor
+	private static class Entry {
+		final long version;
+		final List<Split> splits;
+	}
+}
@@ -0,0 +1,129 @@
+package com.mongo.bill_service.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.entities.SplitResponse;
+import com.mongo.bill_service.exception.BillException;
+import com.mongo.bill_service.html.HtmlTemplate;
+import com.mongo.bill_service.money.Money;
+import com.mongo.bill_service.repos.BillRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+
+// The HTML split page of a bill, rendered once per bill version and kept as UTF-8 bytes, so a shared
+// link opened by many people costs one render. Bounded by the total size of the cached pages.
+@Service
+public class SplitPageService {
+
+	private static final HtmlTemplate PAGE = new HtmlTemplate(Consts.welcomeHTML);
+	private static final HtmlTemplate CARD = new HtmlTemplate(Consts.splitCardHTML);
+	private static final HtmlTemplate ITEM_LIST = new HtmlTemplate(Consts.itemListHTML);
+
+	@Autowired
+	BillRepository billRepository;
+
+	@Autowired
+	SplitCache splitCache;
+
+	@Value("${bill.split-page-cache.max-size}")
+	DataSize maxSize;
+
+	@Value("${bill.split-page-cache.ttl-minutes}")
+	long ttlMinutes;
+
+	private Cache<Integer, Entry> cache;
+
+	@PostConstruct
+	void init() {
+		cache = Caffeine.newBuilder().maximumWeight(maxSize.toBytes())
+				.weigher((Integer billId, Entry entry) -> entry.page.length)
+				.expireAfterWrite(ttlMinutes, TimeUnit.MINUTES).build();
+	}
+
+	// Version as read by the caller with BillRepository.findVersion, null when the bill doesn't exist
+	public byte[] page(int billId, Long version) {
+		if (version == null) {
+			throw new BillException("ERRO6", "Invalid bill: bill " + billId + " does not exist.");
+		}
+
+		Entry entry = cache.getIfPresent(billId);
+		if (entry != null && entry.version == version) {
+			return entry.page;
+		}
+
+		BillDetails bill = billRepository.findById(billId).orElseThrow(
+				() -> new BillException("ERRO6", "Invalid bill: bill " + billId + " does not exist."));
+		List<Split> splits = splitCache.get(bill);
+		byte[] page = render(new SplitResponse(splits, splits.stream().mapToLong(Split::getSplit).sum()),
+				itemNames(bill));
+		cache.put(billId, new Entry(bill.getVersion(), page));
+		return page;
+	}
+
+	public static byte[] render(SplitResponse splitResponse, Map<String, List<String>> itemNames) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+			render(writer, splitResponse, itemNames);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	public static void render(Writer out, SplitResponse splitResponse, Map<String, List<String>> itemNames)
+			throws IOException {
+
+		PAGE.render(out, cards -> {
+			for (Split split : splitResponse.getDetails()) {
+				List<String> names = itemNames.getOrDefault(Consts.participantKey(split.getName()), List.of());
+				CARD.render(cards, HtmlTemplate.text(split.getName()), HtmlTemplate.text(Money.format(split.getSplit())),
+						HtmlTemplate.text(String.valueOf(split.getItemcount())), list -> ITEM_LIST.render(list, items -> {
+							for (String name : names) {
+								items.write("<li>");
+								HtmlTemplate.text(name).write(items);
+								items.write("</li>\n");
+							}
+						}));
+			}
+		}, HtmlTemplate.text(Money.format(splitResponse.getTotal())));
+	}
+
+	// Item names per participant key, which is what the split merges the names on
+	private static Map<String, List<String>> itemNames(BillDetails bill) {
+		Map<String, List<String>> names = new HashMap<String, List<String>>();
+		for (Item item : bill.getItems()) {
+			for (String key : BillService.participantKeys(item)) {
+				names.computeIfAbsent(key, t -> new ArrayList<String>()).add(item.getName());
+			}
+		}
+		return names;
+	}
+
+	@AllArgsConstructor
+	private static class Entry {
+		final long version;
+		final byte[] page;
+	}
+}
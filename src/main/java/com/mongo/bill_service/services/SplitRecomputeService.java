@@ -0,0 +1,137 @@
+package com.mongo.bill_service.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongo.bill_service.documents.BillDetails;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Rewrites the stored split of every bill whose splitVersion is behind BillService.SPLIT_VERSION.
+// One thread reads the bills, batches are computed and written on the task executor.
+@Slf4j
+@Service
+public class SplitRecomputeService {
+
+	private static final int BATCH_SIZE = 500;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	BillService billService;
+
+	@Autowired
+	SequenceAllocator sequenceAllocator;
+
+	@Autowired
+	SplitCache splitCache;
+
+	@Autowired
+	LedgerService ledgerService;
+
+	@Autowired
+	RollupService rollupService;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	TaskExecutor taskExecutor;
+
+	@Value("${bill.splits.recompute-parallelism}")
+	int parallelism;
+
+	public Map<String, Long> recompute() throws InterruptedException {
+
+		Query query = new Query(Criteria.where("splitVersion").ne(BillService.SPLIT_VERSION));
+		query.fields().include("items", "extraPrices", "version");
+
+		AtomicLong updated = new AtomicLong();
+		long matched = 0;
+
+		// Bounds the batches in flight so the reader doesn't run ahead of the writers
+		Semaphore inFlight = new Semaphore(parallelism);
+		List<CompletableFuture<Void>> writes = new ArrayList<CompletableFuture<Void>>();
+		List<BillDetails> batch = new ArrayList<BillDetails>(BATCH_SIZE);
+
+		try (Stream<BillDetails> bills = mongoTemplate.stream(query, BillDetails.class)) {
+			for (BillDetails bill : (Iterable<BillDetails>) bills::iterator) {
+				matched++;
+				batch.add(bill);
+				if (batch.size() == BATCH_SIZE) {
+					writes.add(submit(batch, inFlight, updated));
+					batch = new ArrayList<BillDetails>(BATCH_SIZE);
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			writes.add(submit(batch, inFlight, updated));
+		}
+
+		CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+
+		// Cached entries may hold splits from the old algorithm
+		splitCache.evictAll();
+
+		log.info("Recomputed splits on {} of {} bills", updated.get(), matched);
+
+		// Ledger and participant rollup totals were summed from the old shares
+		if (updated.get() > 0) {
+			ledgerService.rebuild();
+			rollupService.rebuild();
+		}
+
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		result.put("matched", matched);
+		result.put("updated", updated.get());
+		return result;
+	}
+
+	private CompletableFuture<Void> submit(List<BillDetails> batch, Semaphore inFlight, AtomicLong updated)
+			throws InterruptedException {
+		inFlight.acquire();
+		return CompletableFuture.runAsync(() -> {
+			try {
+				updated.addAndGet(write(batch));
+			} finally {
+				inFlight.release();
+			}
+		}, taskExecutor);
+	}
+
+	private long write(List<BillDetails> batch) {
+		int[] versions = sequenceAllocator.next(BillDetails.VERSION_SEQUENCE, batch.size());
+		BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BillDetails.class);
+
+		for (int i = 0; i < batch.size(); i++) {
+			BillDetails bill = batch.get(i);
+
+			// A bill saved since it was read already carries a current split and is left alone.
+			// Bills stored before versioning have no version field at all.
+			Criteria unchanged = bill.getVersion() == 0 ? Criteria.where("version").in(0, null)
+					: Criteria.where("version").is(bill.getVersion());
+			ops.updateOne(new Query(Criteria.where("_id").is(bill.getBillId()).andOperator(unchanged)),
+					new Update().set("splits", billService.split(bill))
+							.set("splitVersion", BillService.SPLIT_VERSION).set("version", versions[i]));
+		}
+
+		return ops.execute().getModifiedCount();
+	}
+}
@@ -0,0 +1,171 @@
+package com.mongo.bill_service.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.PriceBreakdown;
+import com.mongo.bill_service.repos.BillRepository;
+import com.mongo.bill_service.services.BillService;
+import com.mongo.bill_service.services.SplitCache;
+
+class BillExportTests {
+
+	@Test
+	void exportReadsTheBillOnce() throws Exception {
+
+		BillDetails bill = new BillDetails();
+		bill.setBillId(7);
+		bill.setVersion(12);
+		bill.setStore("Store");
+		bill.setBillDate("01/10/2026");
+		bill.setTime("01:15 PM");
+		bill.setPaidBy("Asha");
+		bill.getItems().add(new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi")));
+		bill.getItems().add(new Item(2, "Bread", 1, 4000, 4000, List.of("ravi")));
+		bill.getItems().add(new Item(3, "Tea", 1, 1200, 1200, List.of("Meera", "Asha", "Ravi")));
+		bill.getExtraPrices().add(new PriceBreakdown("GST", 500, PriceBreakdown.Types.TAX));
+		bill.setParticipants(new LinkedHashSet<String>(List.of("Asha", "Ravi", "Meera")));
+
+		BillController controller = new BillController();
+		controller.billRepository = mock(BillRepository.class);
+		controller.mongoTemplate = mock(MongoTemplate.class);
+		controller.billService = new BillService();
+		controller.splitCache = mock(SplitCache.class);
+		when(controller.billRepository.findById(7)).thenReturn(Optional.of(bill));
+		when(controller.splitCache.get(bill)).thenReturn(controller.billService.split(bill));
+
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+		ResponseEntity<StreamingResponseBody> response = controller.downloadFormattedExcel(7,
+				new ServletWebRequest(new MockHttpServletRequest("GET", "/bill/7/download"), servletResponse));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().writeTo(out);
+
+		assertEquals("\"12\"", servletResponse.getHeader(HttpHeaders.ETAG));
+		verify(controller.billRepository, times(1)).findById(7);
+		verifyNoMoreInteractions(controller.billRepository);
+		verifyNoInteractions(controller.mongoTemplate);
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			List<String> sheets = new ArrayList<String>();
+			workbook.forEach(t -> sheets.add(t.getSheetName()));
+			assertEquals(List.of("Bill Details", "Splits", "Asha", "Ravi", "Meera"), sheets);
+
+			// Ravi's sheet holds the items listed under either spelling of the name
+			Sheet ravi = workbook.getSheet("Ravi");
+			assertEquals(3, ravi.getLastRowNum() - 3);
+		}
+	}
+
+	@Test
+	void spellingsOfOneNameShareASheet() throws Exception {
+
+		BillDetails bill = new BillDetails();
+		bill.setBillId(8);
+		bill.setBillDate("01/10/2026");
+		bill.setTime("01:15 PM");
+		bill.getItems().add(new Item(1, "Milk", 1, 6100, 6100, List.of("Asha", "asha ", "Bill details")));
+		bill.getItems().add(new Item(2, "Tea", 1, 1200, 1200,
+				List.of("A participant with a very long name", "A participant with a very long name too")));
+
+		BillController controller = new BillController();
+		controller.billRepository = mock(BillRepository.class);
+		controller.billService = new BillService();
+		controller.splitCache = mock(SplitCache.class);
+		when(controller.billRepository.findById(8)).thenReturn(Optional.of(bill));
+		when(controller.splitCache.get(bill)).thenReturn(controller.billService.split(bill));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		controller.downloadFormattedExcel(8,
+				new ServletWebRequest(new MockHttpServletRequest("GET", "/bill/8/download"))).getBody().writeTo(out);
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			List<String> sheets = new ArrayList<String>();
+			workbook.forEach(t -> sheets.add(t.getSheetName()));
+			assertEquals(List.of("Bill Details", "Splits", "Asha", "Bill details (2)", "A participant with a very long",
+					"A participant with a very l (2)"), sheets);
+
+			// One row per participant, Asha's half of the milk once
+			Sheet splits = workbook.getSheet("Splits");
+			assertEquals(4, splits.getLastRowNum() - 2);
+			assertEquals("Asha", splits.getRow(3).getCell(0).getStringCellValue());
+			assertEquals(30.5, splits.getRow(3).getCell(1).getNumericCellValue());
+		}
+	}
+
+	@Test
+	void unchangedBillIsNotExportedAgain() {
+
+		BillController controller = new BillController();
+		controller.billRepository = mock(BillRepository.class);
+		controller.splitCache = mock(SplitCache.class);
+		when(controller.billRepository.findVersion(7)).thenReturn(12L);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bill/7/download");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"12\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertNull(controller.downloadFormattedExcel(7, new ServletWebRequest(request, response)));
+		assertEquals(304, response.getStatus());
+		assertEquals("\"12\"", response.getHeader(HttpHeaders.ETAG));
+		verify(controller.billRepository, times(1)).findVersion(7);
+		verifyNoMoreInteractions(controller.billRepository);
+		verifyNoInteractions(controller.splitCache);
+	}
+
+	@Test
+	void changedBillIsExportedWithItsVersion() throws Exception {
+
+		BillDetails bill = new BillDetails();
+		bill.setBillId(7);
+		bill.setVersion(13);
+		bill.setBillDate("01/10/2026");
+		bill.setTime("01:15 PM");
+		bill.getItems().add(new Item(1, "Milk", 1, 6100, 6100, List.of("Asha")));
+
+		BillController controller = new BillController();
+		controller.billRepository = mock(BillRepository.class);
+		controller.billService = new BillService();
+		controller.splitCache = mock(SplitCache.class);
+		when(controller.billRepository.findVersion(7)).thenReturn(13L);
+		when(controller.billRepository.findById(7)).thenReturn(Optional.of(bill));
+		when(controller.splitCache.get(bill)).thenReturn(controller.billService.split(bill));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bill/7/download");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"12\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		controller.downloadFormattedExcel(7, new ServletWebRequest(request, response)).getBody().writeTo(out);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("\"13\"", response.getHeader(HttpHeaders.ETAG));
+		assertTrue(out.size() > 0);
+	}
+}
@@ -0,0 +1,20 @@
+package com.mongo.bill_service.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class BillCursorTests {
+
+	@Test
+	void cursorRoundTrips() {
+		BillCursor dated = new BillCursor(LocalDateTime.of(2026, 10, 1, 13, 15), 7);
+		assertEquals(dated, BillCursor.decode(dated.encode()));
+
+		// Bills whose date could not be parsed have no timestamp and can still end a page
+		BillCursor undated = new BillCursor(null, 900);
+		assertEquals(undated, BillCursor.decode(undated.encode()));
+	}
+}
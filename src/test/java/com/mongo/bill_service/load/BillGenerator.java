@@ -0,0 +1,96 @@
+package com.mongo.bill_service.load;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.mongo.bill_service.consts.Consts;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.PriceBreakdown;
+import com.mongo.bill_service.documents.PriceBreakdown.Types;
+
+// Bill n is the same on every run: it only depends on the seed and n. Item counts are skewed (most
+// bills are short, a few are long), people shop in overlapping groups and some names are typed in
+// a different case, and most bills carry tax with the occasional discount, charge or cashback.
+class BillGenerator {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+	private static final int PEOPLE = 500;
+	private static final int STORES = 200;
+	private static final int PRODUCTS = 2000;
+	private static final int MAX_ITEMS = 250;
+
+	private final long seed;
+
+	BillGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	BillDetails bill(long n) {
+		Random random = new Random(seed * 1_000_003 + n);
+		BillDetails bill = new BillDetails();
+
+		// Small stores see few bills, the big ones most of them
+		int store = skewed(random, STORES);
+		bill.setStore("Store " + store);
+		bill.setAddress(store + " Market Road");
+		bill.setPhone(String.format("98%08d", store));
+		bill.setCashier("Cashier " + random.nextInt(5));
+		bill.setBillNumber("B" + n);
+
+		LocalDateTime timestamp = START.plusMinutes(random.nextInt(3 * 365 * 24 * 60));
+		bill.setBillDate(timestamp.format(Consts.DATE_FORMATTER));
+		bill.setTime(timestamp.format(Consts.TIME_FORMATTER));
+
+		// A group of neighbouring people, so groups overlap with the next and previous ones
+		int groupSize = 2 + random.nextInt(7);
+		int groupStart = random.nextInt(PEOPLE);
+		List<String> group = new ArrayList<String>(groupSize);
+		for (int i = 0; i < groupSize; i++) {
+			String name = "Person " + (groupStart + i) % PEOPLE;
+			group.add(random.nextInt(10) == 0 ? name.toLowerCase() : name);
+		}
+		bill.setPaidBy(group.get(0));
+
+		int items = Math.min(MAX_ITEMS, 1 + (int) (-Math.log(1 - random.nextDouble()) * 8));
+		for (int i = 0; i < items; i++) {
+			Item item = new Item();
+			int product = skewed(random, PRODUCTS);
+			item.setName("Product " + product);
+			item.setQuantity(random.nextInt(5) == 0 ? 2 + random.nextInt(4) : 1);
+			item.setRate(500 + product * 37L % 50000);
+			item.setValue(item.getRate() * item.getQuantity());
+
+			// Mostly one or two people, sometimes the whole group
+			int sharedBy = random.nextInt(6) == 0 ? groupSize : 1 + random.nextInt(Math.min(2, groupSize));
+			int first = random.nextInt(groupSize);
+			for (int p = 0; p < sharedBy; p++) {
+				item.getParticipants().add(group.get((first + p) % groupSize));
+			}
+			bill.getItems().add(item);
+		}
+
+		long subtotal = bill.getItems().stream().mapToLong(Item::getValue).sum();
+		if (random.nextInt(10) < 8) {
+			bill.getExtraPrices().add(new PriceBreakdown("GST", subtotal * 5 / 100, Types.TAX));
+		}
+		if (random.nextInt(5) == 0) {
+			bill.getExtraPrices().add(new PriceBreakdown("Offer", subtotal / 10, Types.DISCOUNT));
+		}
+		if (random.nextInt(10) == 0) {
+			bill.getExtraPrices().add(new PriceBreakdown("Delivery", 4000, Types.EXTRA_CHARGES));
+		}
+		if (random.nextInt(20) == 0) {
+			bill.getExtraPrices().add(new PriceBreakdown("Wallet", 2500, Types.CASHBACK));
+		}
+		return bill;
+	}
+
+	// 0..bound-1 with low values far more likely
+	private static int skewed(Random random, int bound) {
+		return (int) (bound * Math.pow(random.nextDouble(), 3));
+	}
+}
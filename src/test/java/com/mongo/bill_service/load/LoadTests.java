@@ -0,0 +1,271 @@
+package com.mongo.bill_service.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongo.bill_service.entities.BulkResult;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+// Seeds the service with generated bills, then runs each workload with a fixed number of concurrent
+// clients over HTTP and writes throughput and latency percentiles to target/load/baseline.json.
+//
+//   mvn -Pload test
+//   mvn -Pload test -Dload.bills=1000000 -Dload.mongo-uri=mongodb://127.0.0.1:27017/loadtest
+//
+// Settings (system properties):
+//   load.bills        bills seeded before the workloads run (default 10000)
+//   load.concurrency  concurrent clients per workload (default 32)
+//   load.requests     measured requests per workload (default 5000)
+//   load.warmup       unmeasured requests per workload before that (default 500)
+//   load.workloads    comma separated, any of save, retry, list, summary, split, download (default all)
+//   load.seed         generator seed (default 42)
+//   load.mongo-uri    Mongo to use instead of the in-memory stand-in; its database is dropped first.
+//                     The stand-in keeps every bill on the heap; past ~100k bills give it -Xmx or use this.
+//   load.report       result file (default target/load/baseline.json)
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class LoadTests {
+
+	private static final int SEED_BATCH = 5000;
+
+	private static final String MONGO_URI = System.getProperty("load.mongo-uri");
+
+	private static MongoServer server;
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private final BillGenerator generator = new BillGenerator(Long.getLong("load.seed", 42));
+
+	@DynamicPropertySource
+	static void mongo(DynamicPropertyRegistry registry) {
+		if (MONGO_URI != null) {
+			// Dropped before the service starts, so its indexes are created again on startup
+			ConnectionString connection = new ConnectionString(MONGO_URI);
+			try (MongoClient mongo = MongoClients.create(connection)) {
+				mongo.getDatabase(connection.getDatabase()).drop();
+			}
+			registry.add("spring.data.mongodb.uri", () -> MONGO_URI);
+			return;
+		}
+		server = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = server.bind();
+		registry.add("spring.data.mongodb.uri",
+				() -> "mongodb://" + address.getHostString() + ":" + address.getPort() + "/loadtest");
+	}
+
+	@AfterAll
+	static void stop() {
+		if (server != null) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void baseline() throws Exception {
+		int bills = Integer.getInteger("load.bills", 10000);
+		int concurrency = Integer.getInteger("load.concurrency", 32);
+		int requests = Integer.getInteger("load.requests", 5000);
+		int warmup = Integer.getInteger("load.warmup", 500);
+		List<String> workloads = Arrays
+				.asList(System.getProperty("load.workloads", "save,retry,list,summary,split,download").split(","));
+		Path report = Path.of(System.getProperty("load.report", "target/load/baseline.json"));
+
+		long seedStart = System.nanoTime();
+		int[] billIds = seed(bills);
+		double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+		System.out.printf("Seeded %d bills in %.1f s%n", billIds.length, seedSeconds);
+
+		AtomicInteger saved = new AtomicInteger();
+		Map<String, Function<Random, HttpRequest>> requestsByWorkload = new LinkedHashMap<String, Function<Random, HttpRequest>>();
+		requestsByWorkload.put("save", random -> post("/bill/save", "application/json",
+				json(generator.bill(bills + saved.incrementAndGet()))));
+		// A seeded bill sent again, answered with the stored one
+		requestsByWorkload.put("retry", random -> post("/bill/save", "application/json",
+				json(generator.bill(random.nextInt(bills)))));
+		requestsByWorkload.put("list", random -> get("/bills?limit=100"));
+		requestsByWorkload.put("summary", random -> get("/bills/summary?limit=100"));
+		requestsByWorkload.put("split", random -> get("/bill/" + billIds[random.nextInt(billIds.length)] + "/split"));
+		requestsByWorkload.put("download",
+				random -> get("/bill/" + billIds[random.nextInt(billIds.length)] + "/download"));
+
+		List<Map<String, Object>> results = new ArrayList<Map<String, Object>>();
+		for (String workload : workloads) {
+			Function<Random, HttpRequest> request = requestsByWorkload.get(workload.trim());
+			if (request == null) {
+				throw new IllegalArgumentException("Unknown workload " + workload);
+			}
+			run(request, concurrency, warmup);
+			Map<String, Object> result = run(request, concurrency, requests);
+			result.put("workload", workload.trim());
+			results.add(result);
+			System.out.printf("%-10s %s%n", workload.trim(), result);
+		}
+
+		Map<String, Object> baseline = new LinkedHashMap<String, Object>();
+		baseline.put("createdAt", LocalDateTime.now().toString());
+		baseline.put("mongo", MONGO_URI == null ? "in-memory" : "external");
+		baseline.put("bills", billIds.length);
+		baseline.put("seedSeconds", Math.round(seedSeconds * 10) / 10.0);
+		baseline.put("concurrency", concurrency);
+		baseline.put("requests", requests);
+		baseline.put("javaVersion", System.getProperty("java.version"));
+		baseline.put("processors", Runtime.getRuntime().availableProcessors());
+		baseline.put("workloads", results);
+
+		Files.createDirectories(report.toAbsolutePath().getParent());
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), baseline);
+		System.out.println("Baseline written to " + report.toAbsolutePath());
+
+		for (Map<String, Object> result : results) {
+			assertEquals(0L, result.get("errors"), result.get("workload") + " had failed requests");
+		}
+	}
+
+	// Through /bills/bulk in NDJSON batches, the ids come back in the results
+	private int[] seed(int bills) throws IOException, InterruptedException {
+		int[] billIds = new int[bills];
+		int seeded = 0;
+		for (int start = 0; start < bills; start += SEED_BATCH) {
+			StringBuilder body = new StringBuilder();
+			for (int n = start; n < Math.min(bills, start + SEED_BATCH); n++) {
+				body.append(json(generator.bill(n))).append('\n');
+			}
+
+			HttpResponse<String> response = client.send(post("/bills/bulk", "application/x-ndjson", body.toString()),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(200, response.statusCode(), response.body());
+			for (BulkResult result : objectMapper.readValue(response.body(), new TypeReference<List<BulkResult>>() {
+			})) {
+				if (result.isSuccess()) {
+					billIds[seeded++] = result.getBillId();
+				}
+			}
+		}
+		return Arrays.copyOf(billIds, seeded);
+	}
+
+	// Each client sends its next request as soon as the previous one is answered
+	private Map<String, Object> run(Function<Random, HttpRequest> request, int concurrency, int requests)
+			throws Exception {
+
+		long[] latencies = new long[requests];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+		long start = System.nanoTime();
+		List<Future<?>> running = new ArrayList<Future<?>>();
+		for (int c = 0; c < concurrency; c++) {
+			Random random = new Random(c);
+			running.add(clients.submit(() -> {
+				for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+					long sent = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request.apply(random),
+								HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 400) {
+							errors.incrementAndGet();
+						}
+					} catch (IOException | InterruptedException e) {
+						errors.incrementAndGet();
+					}
+					latencies[i] = System.nanoTime() - sent;
+				}
+				return null;
+			}));
+		}
+		for (Future<?> client : running) {
+			client.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		clients.shutdown();
+
+		Arrays.sort(latencies);
+		Map<String, Object> latency = new LinkedHashMap<String, Object>();
+		latency.put("p50", percentile(latencies, 0.50));
+		latency.put("p90", percentile(latencies, 0.90));
+		latency.put("p99", percentile(latencies, 0.99));
+		latency.put("p999", percentile(latencies, 0.999));
+		latency.put("max", millis(latencies[latencies.length - 1]));
+
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("requests", requests);
+		result.put("errors", (long) errors.get());
+		result.put("seconds", Math.round(elapsed / 1e6) / 1000.0);
+		result.put("throughput", Math.round(requests / (elapsed / 1e9) * 10) / 10.0);
+		result.put("latencyMs", latency);
+		return result;
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		return millis(sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)]);
+	}
+
+	private static double millis(long nanos) {
+		return Math.round(nanos / 1e3) / 1000.0;
+	}
+
+	private String json(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(uri(path)).GET().build();
+	}
+
+	private HttpRequest post(String path, String contentType, String body) {
+		return HttpRequest.newBuilder(uri(path)).header("Content-Type", contentType)
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + port + "/bill-service" + path);
+	}
+}
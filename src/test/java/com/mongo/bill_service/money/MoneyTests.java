@@ -0,0 +1,53 @@
+package com.mongo.bill_service.money;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.PriceBreakdown;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.services.BillService;
+
+class MoneyTests {
+
+	@Test
+	void parseRoundsHalfUp() {
+		assertEquals(3050, Money.parse("30.5"));
+		assertEquals(29, Money.parse("0.285"));
+		assertEquals(28, Money.parse("0.2849"));
+		assertEquals(-29, Money.parse("-0.285"));
+		assertEquals(4000, Money.parse("40"));
+		assertEquals(150, Money.parse("1.5e0"));
+		assertEquals(29, Money.fromRupees(0.285));
+		assertEquals("-0.05", Money.format(-5));
+		assertEquals("1234.50", Money.format(123450));
+	}
+
+	@Test
+	void allocateAddsUpToTheAmount() {
+		assertArrayEquals(new long[] { 34, 33, 33 }, Money.split(100, 3));
+		assertArrayEquals(new long[] { 33, 34, 33 }, Money.allocate(100, new long[] { 1000, 1001, 1000 }));
+		assertArrayEquals(new long[] { -34, -33, -33 }, Money.allocate(-100, new long[] { 1, 1, 1 }));
+		assertEquals(-1001, Arrays.stream(Money.allocate(-1001, new long[] { 7, 0, 13, 5 })).sum());
+	}
+
+	@Test
+	void splitReconcilesWithTheBillTotal() {
+		BillDetails bill = new BillDetails();
+		bill.getItems().add(new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi", "Meera")));
+		bill.getItems().add(new Item(2, "Bread", 1, 4000, 4000, List.of("Ravi")));
+		bill.getItems().add(new Item(3, "Tea", 1, 1001, 1001, List.of("Meera", "Asha", "Ravi")));
+		bill.getExtraPrices().add(new PriceBreakdown("GST", 517, PriceBreakdown.Types.TAX));
+		bill.getExtraPrices().add(new PriceBreakdown("Off", 333, PriceBreakdown.Types.DISCOUNT));
+
+		List<Split> splits = new BillService().split(bill);
+
+		assertEquals(6100 + 4000 + 1001 + 517 - 333, splits.stream().mapToLong(Split::getSplit).sum());
+	}
+}
@@ -0,0 +1,51 @@
+package com.mongo.bill_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.events.BillChangedEvent;
+
+class AutocompleteServiceTests {
+
+	@Test
+	void mostUsedNamesComeFirst() {
+		AutocompleteService autocomplete = new AutocompleteService();
+		autocomplete.apply(BillChangedEvent.inserted(this, List.of(bill("Big Bazaar", "Bread", "bread ", "Butter"),
+				bill("big  bazaar", "Butter"), bill("Reliance Fresh", "Butter", "Brown Bread"))));
+
+		assertEquals(List.of("Butter", "Bread", "Brown Bread"), autocomplete.items("B", 10));
+		assertEquals(List.of("Bread"), autocomplete.items("BREAD", 10));
+		assertEquals(List.of("Big Bazaar", "Reliance Fresh"), autocomplete.stores("", 10));
+		assertEquals(List.of(), autocomplete.stores("x", 10));
+	}
+
+	@Test
+	void removedBillsAreUncounted() {
+		AutocompleteService autocomplete = new AutocompleteService();
+		BillDetails before = bill("Big Bazaar", "Bread");
+		autocomplete.apply(BillChangedEvent.inserted(this, List.of(before)));
+		autocomplete.apply(BillChangedEvent.saved(this, before, bill("Big Bazaar", "Butter")));
+
+		assertEquals(List.of("Butter"), autocomplete.items("b", 10));
+
+		autocomplete.apply(BillChangedEvent.deleted(this, bill("Big Bazaar", "Butter")));
+		assertEquals(List.of(), autocomplete.items("", 10));
+		assertEquals(List.of(), autocomplete.stores("", 10));
+	}
+
+	private static BillDetails bill(String store, String... items) {
+		BillDetails bill = new BillDetails();
+		bill.setStore(store);
+		for (String name : items) {
+			Item item = new Item();
+			item.setName(name);
+			bill.getItems().add(item);
+		}
+		return bill;
+	}
+}
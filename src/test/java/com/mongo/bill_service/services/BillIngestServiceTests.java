@@ -0,0 +1,81 @@
+package com.mongo.bill_service.services;
+
+import static com.mongo.bill_service.services.Bills.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.index.Index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.BulkResult;
+import com.mongo.bill_service.events.BillChangedEvent;
+
+class BillIngestServiceTests {
+
+	@RegisterExtension
+	final InMemoryMongo mongo = new InMemoryMongo();
+
+	private BillIngestService billIngestService;
+
+	@BeforeEach
+	void start() {
+		mongo.template().indexOps(BillDetails.class)
+				.ensureIndex(new Index("fingerprint", Direction.ASC).unique().sparse().named("fingerprint"));
+
+		billIngestService = new BillIngestService();
+		billIngestService.mongoTemplate = mongo.template();
+		billIngestService.objectMapper = new ObjectMapper();
+		billIngestService.billService = new BillService();
+		billIngestService.eventPublisher = mock(ApplicationEventPublisher.class);
+		billIngestService.batchSize = 10;
+	}
+
+	@Test
+	void failedBillsDontStopTheBatch() throws Exception {
+		mongo.template().insert(bill(1, 1, "Store", "01/10/2026", null,
+				new Item(1, "Milk", 2, 3050, 6100, List.of("Asha"))));
+
+		// The second bill is a receipt stored before, the third gets an id that is taken
+		String body = String.join("\n",
+				"{\"billId\": 2, \"store\": \"Store\", \"billNumber\": \"B2\", \"billDate\": \"02/10/2026\","
+						+ " \"time\": \"01:15 PM\", \"items\": [{\"name\": \"Tea\", \"quantity\": 1, \"rate\": 12,"
+						+ " \"value\": 12, \"participants\": [\"Asha\"]}]}",
+				"{\"billId\": 3, \"store\": \"store \", \"billNumber\": \"B1\", \"billDate\": \"01/10/2026\","
+						+ " \"time\": \"01:15 PM\", \"items\": [{\"name\": \"Milk\", \"quantity\": 2, \"rate\": 30.5,"
+						+ " \"value\": 61, \"participants\": [\"Asha\"]}]}",
+				"{\"billId\": 1, \"store\": \"Store\", \"billNumber\": \"B4\", \"billDate\": \"04/10/2026\","
+						+ " \"time\": \"01:15 PM\", \"items\": [{\"name\": \"Jam\", \"quantity\": 1, \"rate\": 20,"
+						+ " \"value\": 20, \"participants\": [\"Asha\"]}]}",
+				"{\"billId\": 5, \"store\": \"Store\", \"billNumber\": \"B5\", \"billDate\": \"05/10/2026\","
+						+ " \"time\": \"01:15 PM\", \"items\": [{\"name\": \"Bread\", \"quantity\": 1, \"rate\": 40,"
+						+ " \"value\": 40, \"participants\": [\"Asha\"]}]}");
+
+		List<BulkResult> results = billIngestService
+				.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(List.of(new BulkResult(0, 2, true, null),
+				BulkResult.failed(1,
+						"Duplicate bill: one with the same store, bill number, date, time and totals is stored."),
+				BulkResult.failed(2, "Bill could not be stored, please retry."), new BulkResult(3, 5, true, null)),
+				results);
+		assertEquals(List.of(1, 2, 5), mongo.template().findAll(BillDetails.class).stream()
+				.map(BillDetails::getBillId).sorted().toList());
+
+		ArgumentCaptor<BillChangedEvent> event = ArgumentCaptor.forClass(BillChangedEvent.class);
+		verify(billIngestService.eventPublisher).publishEvent(event.capture());
+		assertEquals(List.of(2, 5), event.getValue().getAdded().stream().map(BillDetails::getBillId).toList());
+	}
+}
@@ -0,0 +1,242 @@
+package com.mongo.bill_service.services;
+
+import static com.mongo.bill_service.services.Bills.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.ItemChange;
+import com.mongo.bill_service.entities.Split;
+import com.mongo.bill_service.events.BillChangedEvent;
+import com.mongo.bill_service.exception.BillConflictException;
+import com.mongo.bill_service.exception.BillException;
+
+class BillItemServiceTests {
+
+	@RegisterExtension
+	final InMemoryMongo mongo = new InMemoryMongo();
+
+	private MongoTemplate mongoTemplate;
+	private final AtomicInteger sequence = new AtomicInteger(100);
+
+	@BeforeEach
+	void start() {
+		mongoTemplate = mongo.template();
+	}
+
+	@Test
+	void changesToDifferentItemsDontConflict() {
+		mongoTemplate.insert(bill(1, 0, "Store", "01/10/2026", null, milk(),
+				new Item(2, "Tea", 1, 1200, 1200, List.of("Meera"))));
+
+		// Tea is replaced between the read of milk and its write
+		BillItemService other = service(mongoTemplate);
+		BillItemService billItemService = service(spy(mongoTemplate));
+		AtomicInteger writes = new AtomicInteger();
+		doAnswer(t -> {
+			if (writes.getAndIncrement() == 0) {
+				other.update(1, 2, new Item(-1, "Tea", 2, 1200, 2400, List.of("Meera")));
+			}
+			return t.callRealMethod();
+		}).when(billItemService.mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(BillDetails.class));
+
+		ItemChange change = billItemService.update(1, 1, new Item(-1, "Milk", 1, 3050, 3050, List.of("ravi")));
+
+		assertEquals(1, writes.get());
+		assertEquals(new ItemChange(1, change.getVersion(), change.getItem(), 2, 3, 5450), change);
+		assertEquals(1, change.getItem().getItemId());
+
+		BillDetails stored = stored();
+		assertEquals(5450, stored.getTotalValue());
+		assertEquals(3, stored.getTotalQuantity());
+		assertEquals(change.getVersion(), stored.getVersion());
+		assertEquals(Set.of("ravi", "Meera"), stored.getParticipants());
+		assertEquals(List.of(new Split("ravi", 3050, 1), new Split("Meera", 2400, 1)),
+				new BillService().currentSplit(stored));
+	}
+
+	@Test
+	void addedItemMovesTheTotals() {
+		mongoTemplate.insert(bill(1, 0, "Store", "01/10/2026", null, milk()));
+
+		ItemChange change = service(mongoTemplate).add(1, new Item(-1, "Bread", 1, 4000, 4000, List.of("ravi")));
+
+		assertEquals(new ItemChange(1, change.getVersion(), change.getItem(), 2, 3, 10100), change);
+		assertEquals("Bread", change.getItem().getName());
+
+		BillDetails stored = stored();
+		assertEquals(List.of("Milk", "Bread"), stored.getItems().stream().map(Item::getName).toList());
+		assertEquals(10100, stored.getTotalValue());
+		assertEquals(Set.of("Asha", "Ravi"), stored.getParticipants());
+		assertEquals(0, stored.getSplitVersion());
+		assertEquals(List.of(new Split("Asha", 3050, 1), new Split("Ravi", 7050, 2)),
+				new BillService().currentSplit(stored));
+	}
+
+	@Test
+	void removedItemTakesItsParticipantsAlong() {
+		mongoTemplate.insert(bill(1, 0, "Store", "01/10/2026", null, milk(),
+				new Item(2, "Tea", 1, 1200, 1200, List.of("Meera"))));
+		BillDetails previous = stored();
+
+		BillItemService billItemService = service(mongoTemplate);
+		ItemChange change = billItemService.remove(1, 2);
+
+		assertEquals(new ItemChange(1, change.getVersion(), null, 1, 2, 6100), change);
+
+		BillDetails stored = stored();
+		assertEquals(Set.of("Asha", "Ravi"), stored.getParticipants());
+		assertEquals(Set.of("asha", "ravi"), stored.getParticipantKeys());
+		assertEquals(bill(1, 0, "Store", "01/10/2026", null, milk()).getFingerprint(), stored.getFingerprint());
+		assertEquals(0, stored.getSplitVersion());
+		assertEquals(List.of(new Split("Asha", 3050, 1), new Split("Ravi", 3050, 1)),
+				new BillService().currentSplit(stored));
+
+		ArgumentCaptor<BillChangedEvent> event = ArgumentCaptor.forClass(BillChangedEvent.class);
+		verify(billItemService.eventPublisher).publishEvent(event.capture());
+		assertEquals(previous.getItems(), event.getValue().getRemoved().get(0).getItems());
+		assertEquals(stored.getItems(), event.getValue().getAdded().get(0).getItems());
+		assertEquals(stored.getVersion(), event.getValue().getAdded().get(0).getVersion());
+	}
+
+	@Test
+	void billWithUnparseableDateStaysConsistent() {
+		mongoTemplate.getCollection("billRepo").insertOne(new Document("_id", 1).append("billNumber", "B1")
+				.append("billDate", "31/02/2020").append("time", "xx")
+				.append("items", List.of(new Document("_id", 1).append("name", "Milk").append("quantity", 1)
+						.append("rate", 6100L).append("value", 6100L).append("participants", List.of("Asha"))))
+				.append("extraPrices", List.of()).append("totalValue", 6100L).append("totalItems", 1)
+				.append("totalQuantity", 1));
+
+		ItemChange change = service(mongoTemplate).add(1, new Item(-1, "Tea", 1, 1200, 1200, List.of("Ravi")));
+
+		assertEquals(7300, change.getTotalValue());
+		BillDetails stored = stored();
+		assertEquals(7300, stored.getTotalValue());
+		assertEquals(List.of(new Split("Asha", 6100, 1), new Split("Ravi", 1200, 1)),
+				new BillService().currentSplit(stored));
+		assertEquals("31/02/2020", stored.getBillDate());
+		assertNull(stored.getBillTimestamp());
+	}
+
+	@Test
+	void billInRupeesIsMigratedFirst() {
+		mongoTemplate.getCollection("billRepo").insertOne(new Document("_id", 1).append("billNumber", "B1")
+				.append("billDate", "01/10/2026").append("time", "01:15 PM")
+				.append("items", List.of(new Document("_id", 1).append("name", "Milk").append("quantity", 2)
+						.append("rate", 30.5).append("value", 61.0).append("participants", List.of("Asha"))))
+				.append("extraPrices", List.of()).append("totalValue", 61.0).append("totalItems", 1)
+				.append("totalQuantity", 2)
+				.append("splits", List.of(new Document("name", "Asha").append("split", 61.0).append("itemcount", 1))));
+
+		ItemChange change = service(mongoTemplate).add(1, new Item(-1, "Tea", 1, 1200, 1200, List.of("Asha")));
+
+		assertEquals(7300, change.getTotalValue());
+		assertEquals(List.of(new Split("Asha", 7300, 2)), new BillService().currentSplit(stored()));
+
+		Document stored = mongoTemplate.getCollection("billRepo").find().first();
+		assertEquals(7300L, stored.get("totalValue"));
+		assertEquals(List.of(6100L, 1200L), stored.getList("items", Document.class).stream().map(t -> t.get("value"))
+				.toList());
+	}
+
+	@Test
+	void billEditedIntoAnotherLosesItsFingerprint() {
+		mongoTemplate.indexOps(BillDetails.class)
+				.ensureIndex(new Index("fingerprint", Direction.ASC).unique().sparse());
+		mongoTemplate.insert(bill(1, 0, "Store", "01/10/2026", null, milk()));
+		BillDetails other = bill(2, 0, "Store", "01/10/2026", null, milk(),
+				new Item(2, "Tea", 1, 1200, 1200, List.of("Asha")));
+		other.setBillNumber("B1");
+		mongoTemplate.insert(new BillService().prepare(other));
+
+		ItemChange change = service(mongoTemplate).remove(2, 2);
+
+		assertEquals(6100, change.getTotalValue());
+		BillDetails edited = mongoTemplate.findById(2, BillDetails.class);
+		assertEquals(6100, edited.getTotalValue());
+		assertNull(edited.getFingerprint());
+		assertEquals(bill(1, 0, "Store", "01/10/2026", null, milk()).getFingerprint(), stored().getFingerprint());
+	}
+
+	@Test
+	void itemThatKeepsChangingIsLeftAlone() {
+		mongoTemplate.insert(bill(1, 0, "Store", "01/10/2026", null, milk()));
+
+		// Every write finds the item changed since it was read
+		BillItemService billItemService = service(spy(mongoTemplate));
+		AtomicInteger quantity = new AtomicInteger(2);
+		doAnswer(t -> {
+			mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(1)),
+					new Update().set("items.0.quantity", quantity.incrementAndGet()), BillDetails.class);
+			return t.callRealMethod();
+		}).when(billItemService.mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(BillDetails.class));
+
+		assertThrows(BillConflictException.class, () -> billItemService.remove(1, 1));
+
+		BillDetails stored = stored();
+		assertEquals(List.of("Milk"), stored.getItems().stream().map(Item::getName).toList());
+		assertEquals(6100, stored.getTotalValue());
+	}
+
+	@Test
+	void missingItemIsReported() {
+		mongoTemplate.insert(bill(1, 0, "Store", "01/10/2026", null, milk()));
+
+		BillException e = assertThrows(BillException.class, () -> service(mongoTemplate).remove(1, 7));
+		assertEquals("ERRO6", e.getErrorCode());
+		assertThrows(BillException.class, () -> service(mongoTemplate).add(2, milk()));
+	}
+
+	private BillItemService service(MongoTemplate template) {
+		BillItemService billItemService = new BillItemService();
+		billItemService.mongoTemplate = template;
+		billItemService.billService = new BillService();
+		billItemService.paiseMigrationService = new PaiseMigrationService();
+		billItemService.paiseMigrationService.mongoTemplate = mongoTemplate;
+		billItemService.paiseMigrationService.billService = billItemService.billService;
+		billItemService.sequenceAllocator = mock(SequenceAllocator.class);
+		billItemService.splitCache = mock(SplitCache.class);
+		billItemService.eventPublisher = mock(ApplicationEventPublisher.class);
+		when(billItemService.sequenceAllocator.next(anyString())).thenAnswer(t -> sequence.incrementAndGet());
+		return billItemService;
+	}
+
+	private BillDetails stored() {
+		return mongoTemplate.findById(1, BillDetails.class);
+	}
+
+	private static Item milk() {
+		return new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi"));
+	}
+}
@@ -0,0 +1,98 @@
+package com.mongo.bill_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.repos.BillRepository;
+
+class BillSaveServiceTests {
+
+	@Test
+	void resubmittedBillReturnsTheStoredOne() {
+
+		BillSaveService billSaveService = new BillSaveService();
+		billSaveService.mongoTemplate = mock(MongoTemplate.class);
+		billSaveService.billRepository = mock(BillRepository.class);
+		billSaveService.eventPublisher = mock(ApplicationEventPublisher.class);
+		billSaveService.billService = new BillService();
+
+		BillDetails stored = bill(" big bazaar");
+		stored.setBillId(7);
+		when(billSaveService.mongoTemplate.findOne(any(Query.class), eq(BillDetails.class))).thenReturn(stored);
+
+		assertSame(stored, billSaveService.save(bill("Big Bazaar"), false, "scan-42"));
+
+		verify(billSaveService.mongoTemplate, times(1)).findOne(any(Query.class), eq(BillDetails.class));
+		verifyNoMoreInteractions(billSaveService.mongoTemplate);
+		verifyNoInteractions(billSaveService.billRepository, billSaveService.eventPublisher);
+	}
+
+	@Test
+	void replacedBillKeepsItsIdempotencyKey() {
+
+		BillSaveService billSaveService = new BillSaveService();
+		billSaveService.mongoTemplate = mock(MongoTemplate.class);
+		billSaveService.eventPublisher = mock(ApplicationEventPublisher.class);
+		billSaveService.billService = new BillService();
+
+		BillDetails stored = bill("Big Bazaar");
+		stored.setBillId(7);
+		stored.setIdempotencyKey("scan-42");
+		when(billSaveService.mongoTemplate.findOne(any(Query.class), eq(BillDetails.class))).thenReturn(stored);
+		when(billSaveService.mongoTemplate.findAndReplace(any(Query.class), any(BillDetails.class))).thenReturn(stored);
+
+		BillDetails edited = bill("Big Bazaar");
+		edited.setBillId(7);
+		edited.getItems().get(0).setValue(4100);
+		billSaveService.save(edited, false);
+
+		verify(billSaveService.mongoTemplate).findAndReplace(any(Query.class),
+				argThat((BillDetails t) -> "scan-42".equals(t.getIdempotencyKey())));
+	}
+
+	@Test
+	void fingerprintNeedsABillNumber() {
+
+		BillService billService = new BillService();
+		BillDetails bill = billService.prepare(bill("Big Bazaar"));
+		assertEquals(billService.prepare(bill("BIG  BAZAAR")).getFingerprint(), bill.getFingerprint());
+
+		BillDetails otherTotal = bill("Big Bazaar");
+		otherTotal.getItems().get(0).setValue(4100);
+		assertNotEquals(bill.getFingerprint(), billService.prepare(otherTotal).getFingerprint());
+
+		BillDetails unnumbered = bill("Big Bazaar");
+		unnumbered.setBillNumber(" ");
+		assertNull(billService.prepare(unnumbered).getFingerprint());
+	}
+
+	private static BillDetails bill(String store) {
+		BillDetails bill = new BillDetails();
+		bill.setStore(store);
+		bill.setBillNumber("B1");
+		bill.setBillDate("01/10/2026");
+		bill.setTime("01:15 PM");
+		bill.getItems().add(new Item(-1, "Bread", 1, 4000, 4000, List.of("Asha")));
+		return bill;
+	}
+}
@@ -0,0 +1,24 @@
+package com.mongo.bill_service.services;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+
+// Bills as BillService.prepare leaves them before a save, at the time 01:15 PM
+class Bills {
+
+	static BillDetails bill(int billId, long version, String store, String date, String paidBy, Item... items) {
+		BillDetails bill = new BillDetails();
+		bill.setBillId(billId);
+		bill.setStore(store);
+		bill.setBillNumber("B" + billId);
+		bill.setBillDate(date);
+		bill.setTime("01:15 PM");
+		bill.setPaidBy(paidBy);
+		for (Item item : items) {
+			bill.getItems().add(item);
+		}
+		new BillService().prepare(bill);
+		bill.setVersion(version);
+		return bill;
+	}
+}
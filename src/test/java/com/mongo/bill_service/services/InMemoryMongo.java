@@ -0,0 +1,57 @@
+package com.mongo.bill_service.services;
+
+import java.net.InetSocketAddress;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.listeners.BillListener;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+// A fresh in-memory Mongo server for each test, registered with @RegisterExtension. It has no text
+// search and ignores secondary indexes other than unique ones.
+class InMemoryMongo implements BeforeEachCallback, AfterEachCallback {
+
+	private MongoServer server;
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void beforeEach(ExtensionContext context) {
+		server = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = server.bind();
+		client = MongoClients.create("mongodb://127.0.0.1:" + address.getPort());
+		mongoTemplate = new MongoTemplate(client, "bills");
+
+		// Converts the rupee doubles of bills not migrated yet, as in the application
+		BillListener billListener = new BillListener();
+		GenericApplicationContext events = new GenericApplicationContext();
+		events.addApplicationListener(t -> {
+			if (t instanceof AfterConvertEvent<?> event && event.getSource() instanceof BillDetails) {
+				billListener.onAfterConvert((AfterConvertEvent<BillDetails>) event);
+			}
+		});
+		events.refresh();
+		mongoTemplate.setApplicationContext(events);
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		client.close();
+		server.shutdown();
+	}
+
+	MongoTemplate template() {
+		return mongoTemplate;
+	}
+}
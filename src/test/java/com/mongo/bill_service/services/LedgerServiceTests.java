@@ -0,0 +1,129 @@
+package com.mongo.bill_service.services;
+
+import static com.mongo.bill_service.services.Bills.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.LedgerEntry;
+import com.mongo.bill_service.events.BillChangedEvent;
+
+class LedgerServiceTests {
+
+	@RegisterExtension
+	final InMemoryMongo mongo = new InMemoryMongo();
+
+	private MongoTemplate mongoTemplate;
+	private LedgerService ledgerService;
+
+	@BeforeEach
+	void start() {
+		mongoTemplate = mongo.template();
+
+		ledgerService = new LedgerService();
+		ledgerService.mongoTemplate = spy(mongoTemplate);
+		ledgerService.billService = new BillService();
+		ledgerService.taskExecutor = Runnable::run;
+	}
+
+	@Test
+	void billsBalance() {
+		save(bill(1, 1, "Store", "01/10/2026", "Asha", new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi"))));
+		save(bill(2, 1, "Store", "01/10/2026", "Ravi", new Item(1, "Tea", 1, 1200, 1200, List.of("Meera"))));
+		// Nobody was assigned the item, so nobody owes for it
+		save(bill(3, 1, "Store", "01/10/2026", "Meera", new Item(1, "Bread", 1, 4000, 4000, List.of())));
+
+		Map<String, LedgerEntry> ledger = ledger();
+		assertEquals(new LedgerEntry("asha", "Asha", 1, 3050, 6100), ledger.get("asha"));
+		assertEquals(new LedgerEntry("ravi", "Ravi", 2, 3050, 1200), ledger.get("ravi"));
+		assertEquals(new LedgerEntry("meera", "Meera", 2, 1200, 0), ledger.get("meera"));
+		assertEquals(0, ledger.values().stream().mapToLong(LedgerEntry::getBalance).sum());
+
+		ledgerService.rebuild();
+
+		assertEquals(ledger, ledger());
+	}
+
+	@Test
+	void changesDuringRebuildAreKept() {
+		BillDetails changed = save(
+				bill(1, 1, "Store", "01/10/2026", "Asha", new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi"))));
+		BillDetails deleted = save(
+				bill(2, 1, "Store", "01/10/2026", "Ravi", new Item(1, "Tea", 1, 1200, 1200, List.of("Meera"))));
+
+		// One bill changes before the sum reads it, another is added and one deleted after
+		doAnswer(t -> {
+			BillDetails current = bill(1, 2, "Store", "01/10/2026", "Ravi",
+					new Item(1, "Milk", 2, 3050, 6100, List.of("Asha")));
+			mongoTemplate.save(current);
+			ledgerService.apply(BillChangedEvent.saved(this, changed, current));
+
+			List<?> bills = ((Stream<?>) t.callRealMethod()).toList();
+
+			save(bill(3, 1, "Store", "01/10/2026", "Meera", new Item(1, "Bread", 1, 4000, 4000, List.of("Ravi"))));
+			mongoTemplate.remove(deleted);
+			ledgerService.apply(BillChangedEvent.deleted(this, deleted));
+			return bills.stream();
+		}).when(ledgerService.mongoTemplate).stream(any(Query.class), eq(BillDetails.class));
+
+		ledgerService.rebuild();
+
+		Map<String, LedgerEntry> ledger = ledger();
+		assertEquals(new LedgerEntry("asha", "Asha", 1, 6100, 0), ledger.get("asha"));
+		assertEquals(new LedgerEntry("ravi", "Ravi", 2, 4000, 6100), ledger.get("ravi"));
+		assertEquals(new LedgerEntry("meera", "Meera", 1, 0, 4000), ledger.get("meera"));
+
+		doCallRealMethod().when(ledgerService.mongoTemplate).stream(any(Query.class), eq(BillDetails.class));
+		ledgerService.rebuild();
+
+		assertEquals(ledger, ledger());
+	}
+
+	@Test
+	void changeThatFailsToApplyIsRebuilt() {
+		save(bill(1, 1, "Store", "01/10/2026", "Asha", new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi"))));
+		doThrow(new DataAccessResourceFailureException("Timed out")).doCallRealMethod()
+				.when(ledgerService.mongoTemplate).bulkOps(any(BulkMode.class), eq(LedgerEntry.class), anyString());
+
+		BillDetails bill = bill(2, 1, "Store", "01/10/2026", "Ravi",
+				new Item(1, "Tea", 1, 1200, 1200, List.of("Asha")));
+		mongoTemplate.save(bill);
+		ledgerService.applyOrRebuild(BillChangedEvent.inserted(this, List.of(bill)));
+
+		Map<String, LedgerEntry> ledger = ledger();
+		assertEquals(new LedgerEntry("asha", "Asha", 2, 4250, 6100), ledger.get("asha"));
+		assertEquals(new LedgerEntry("ravi", "Ravi", 2, 3050, 1200), ledger.get("ravi"));
+	}
+
+	private BillDetails save(BillDetails bill) {
+		mongoTemplate.save(bill);
+		ledgerService.apply(BillChangedEvent.inserted(this, List.of(bill)));
+		return bill;
+	}
+
+	private Map<String, LedgerEntry> ledger() {
+		Map<String, LedgerEntry> ledger = new TreeMap<String, LedgerEntry>();
+		mongoTemplate.findAll(LedgerEntry.class).forEach(t -> ledger.put(t.getParticipantKey(), t));
+		return ledger;
+	}
+}
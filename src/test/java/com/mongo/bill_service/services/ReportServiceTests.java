@@ -0,0 +1,60 @@
+package com.mongo.bill_service.services;
+
+import static com.mongo.bill_service.services.Bills.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.mongo.bill_service.documents.Item;
+
+class ReportServiceTests {
+
+	@RegisterExtension
+	final InMemoryMongo mongo = new InMemoryMongo();
+
+	@Test
+	void spellingsOfOneNameShareARow() throws Exception {
+		mongo.template().insert(bill(1, 1, "Big Bazaar", "01/10/2026", "Asha",
+				new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "ravi "))));
+		mongo.template().insert(bill(2, 1, "big  bazaar ", "02/10/2026", " asha",
+				new Item(1, "Tea", 1, 1200, 1200, List.of("ASHA", "Ravi"))));
+		// Nobody paid, so nobody is owed for it
+		mongo.template().insert(bill(3, 1, "Reliance", "03/10/2026", " ",
+				new Item(1, "Bread", 1, 4000, 4000, List.of("Ravi"))));
+
+		ReportService reportService = new ReportService();
+		reportService.mongoTemplate = mongo.template();
+		reportService.billService = new BillService();
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			reportService.writeReport(workbook, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31));
+
+			assertEquals(List.of(List.of("Store", "Bills", "Items", "Quantity", "Total Value"),
+					List.of("Big Bazaar", "2", "2", "3", "73"), List.of("Reliance", "1", "1", "1", "40")),
+					rows(workbook.getSheet("Stores")));
+			assertEquals(List.of(List.of("Name", "Bills", "Items", "Share", "Paid", "Balance"),
+					List.of("Asha", "2", "2", "36.5", "73", "36.5"),
+					List.of("ravi", "3", "3", "76.5", "0", "-76.5")), rows(workbook.getSheet("Participants")));
+		}
+	}
+
+	private static List<List<String>> rows(Sheet sheet) {
+		DataFormatter formatter = new DataFormatter();
+		List<List<String>> rows = new ArrayList<List<String>>();
+		for (Row row : sheet) {
+			List<String> cells = new ArrayList<String>();
+			row.forEach(t -> cells.add(formatter.formatCellValue(t)));
+			rows.add(cells);
+		}
+		return rows;
+	}
+}
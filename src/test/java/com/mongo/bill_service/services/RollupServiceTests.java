@@ -0,0 +1,131 @@
+package com.mongo.bill_service.services;
+
+import static com.mongo.bill_service.services.Bills.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongo.bill_service.documents.BillDetails;
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.documents.Rollup;
+import com.mongo.bill_service.documents.Rollup.Kinds;
+import com.mongo.bill_service.events.BillChangedEvent;
+
+class RollupServiceTests {
+
+	@RegisterExtension
+	final InMemoryMongo mongo = new InMemoryMongo();
+
+	private MongoTemplate mongoTemplate;
+	private RollupService rollupService;
+
+	@BeforeEach
+	void start() {
+		mongoTemplate = mongo.template();
+
+		rollupService = new RollupService();
+		rollupService.mongoTemplate = spy(mongoTemplate);
+		rollupService.billService = new BillService();
+		rollupService.taskExecutor = Runnable::run;
+		rollupService.parallelism = 3;
+	}
+
+	@Test
+	void billMovedToAnotherMonthAndStore() {
+		BillDetails previous = save(
+				bill(1, 1, "S1", "30/10/2026", null, new Item(1, "Milk", 2, 3050, 6100, List.of("Asha"))));
+		save(bill(2, 1, "S1", "01/10/2026", null, new Item(1, "Tea", 1, 1200, 1200, List.of("Asha"))));
+
+		BillDetails current = bill(1, 2, "S2", "01/11/2026", null,
+				new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "Ravi")));
+		mongoTemplate.save(current);
+		rollupService.apply(BillChangedEvent.saved(this, previous, current));
+
+		assertEquals(
+				List.of(rollup(Kinds.STORE, "2026-10", "S1", 1, 1200), rollup(Kinds.STORE, "2026-11", "S2", 1, 6100)),
+				rollupService.find(Kinds.STORE, null, null, null));
+		assertEquals(
+				List.of(rollup(Kinds.PARTICIPANT, "2026-10", "Asha", 1, 1200),
+						rollup(Kinds.PARTICIPANT, "2026-11", "Asha", 1, 3050)),
+				rollupService.find(Kinds.PARTICIPANT, "asha", null, null));
+		assertEquals(List.of(rollup(Kinds.PARTICIPANT, "2026-11", "Ravi", 1, 3050)),
+				rollupService.find(Kinds.PARTICIPANT, "ravi", null, null));
+	}
+
+	@Test
+	void deletedBillLeavesNothing() {
+		save(bill(1, 1, "S1", "01/10/2026", null, new Item(1, "Milk", 2, 3050, 6100, List.of("Asha"))));
+		BillDetails deleted = save(
+				bill(2, 1, "S2", "01/11/2026", null, new Item(1, "Tea", 1, 1200, 1200, List.of("Ravi"))));
+
+		mongoTemplate.remove(deleted);
+		rollupService.apply(BillChangedEvent.deleted(this, deleted));
+
+		assertEquals(List.of(rollup(Kinds.STORE, "2026-10", "S1", 1, 6100)),
+				rollupService.find(Kinds.STORE, null, null, null));
+		assertEquals(List.of(rollup(Kinds.PARTICIPANT, "2026-10", "Asha", 1, 6100)),
+				rollupService.find(Kinds.PARTICIPANT, null, null, null));
+		assertEquals(List.of(), rollupService.find(Kinds.PARTICIPANT, "ravi", null, null));
+	}
+
+	@Test
+	void changesDuringRebuildAreKept() {
+		for (int i = 1; i <= 6; i++) {
+			Item item = new Item(1, "Milk", 1, 1000 * i, 1000 * i, List.of("Asha"));
+			save(bill(i, 1, "S" + i % 2, "0" + i + "/10/2026", null, item));
+		}
+		BillDetails moved = mongoTemplate.findById(6, BillDetails.class);
+
+		// After the first range is summed, a bill in it is deleted and one in the last range moves month
+		AtomicInteger ranges = new AtomicInteger();
+		doAnswer(t -> {
+			List<?> bills = ((Stream<?>) t.callRealMethod()).toList();
+			if (ranges.getAndIncrement() == 0) {
+				BillDetails deleted = mongoTemplate.findById(1, BillDetails.class);
+				mongoTemplate.remove(deleted);
+				rollupService.apply(BillChangedEvent.deleted(this, deleted));
+
+				BillDetails current = bill(6, 2, "S0", "06/11/2026", null,
+						new Item(1, "Milk", 1, 6000, 6000, List.of("Asha")));
+				mongoTemplate.save(current);
+				rollupService.apply(BillChangedEvent.saved(this, moved, current));
+			}
+			return bills.stream();
+		}).when(rollupService.mongoTemplate).stream(any(Query.class), eq(BillDetails.class));
+
+		rollupService.rebuild();
+
+		assertEquals(3, ranges.get());
+		assertEquals(
+				List.of(rollup(Kinds.STORE, "2026-10", "S1", 2, 8000), rollup(Kinds.STORE, "2026-10", "S0", 2, 6000),
+						rollup(Kinds.STORE, "2026-11", "S0", 1, 6000)),
+				rollupService.find(Kinds.STORE, null, null, null));
+		assertEquals(
+				List.of(rollup(Kinds.PARTICIPANT, "2026-10", "Asha", 4, 14000),
+						rollup(Kinds.PARTICIPANT, "2026-11", "Asha", 1, 6000)),
+				rollupService.find(Kinds.PARTICIPANT, null, null, null));
+	}
+
+	private BillDetails save(BillDetails bill) {
+		mongoTemplate.save(bill);
+		rollupService.apply(BillChangedEvent.inserted(this, List.of(bill)));
+		return bill;
+	}
+
+	private static Rollup rollup(Kinds kind, String month, String name, int bills, long amount) {
+		String key = name.toLowerCase();
+		return new Rollup(Rollup.id(kind, month, key), kind, month, key, name, bills, amount);
+	}
+}
@@ -0,0 +1,97 @@
+package com.mongo.bill_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.mongo.bill_service.repos.SequenceRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SequenceAllocatorTests {
+
+	private final AtomicInteger seq = new AtomicInteger();
+	private SequenceAllocator sequenceAllocator;
+
+	@BeforeEach
+	void start() {
+		sequenceAllocator = new SequenceAllocator();
+		sequenceAllocator.sequenceRepository = mock(SequenceRepository.class);
+		sequenceAllocator.meterRegistry = new SimpleMeterRegistry();
+		sequenceAllocator.blockSize = 100;
+		sequenceAllocator.refillThreshold = 25;
+		when(sequenceAllocator.sequenceRepository.reserveBlock(eq("bills"), anyInt()))
+				.thenAnswer(t -> seq.addAndGet(t.getArgument(1)));
+	}
+
+	@Test
+	void concurrentTakesGetEveryIdOnce() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		ConcurrentLinkedQueue<Integer> ids = new ConcurrentLinkedQueue<Integer>();
+		try {
+			List<Future<?>> takers = new ArrayList<Future<?>>();
+			for (int i = 0; i < 8; i++) {
+				int count = i + 1;
+				takers.add(threads.submit(() -> {
+					for (int j = 0; j < 200; j++) {
+						for (int id : sequenceAllocator.next("bills", count)) {
+							ids.add(id);
+						}
+					}
+				}));
+			}
+			for (Future<?> taker : takers) {
+				taker.get();
+			}
+		} finally {
+			threads.shutdown();
+		}
+
+		// Blocks are used up in the order they were reserved, so nothing is skipped
+		assertEquals(IntStream.rangeClosed(1, 200 * 36).boxed().toList(), ids.stream().sorted().toList());
+	}
+
+	@Test
+	void takeLargerThanABlockIsOneRoundTrip() {
+		sequenceAllocator.refillExecutor = Runnable::run;
+
+		assertArrayEquals(IntStream.rangeClosed(1, 250).toArray(), sequenceAllocator.next("bills", 250));
+		verify(sequenceAllocator.sequenceRepository).reserveBlock("bills", 250);
+
+		// Then the next block is already reserved
+		assertEquals(251, sequenceAllocator.next("bills"));
+		verify(sequenceAllocator.sequenceRepository).reserveBlock("bills", 100);
+		verify(sequenceAllocator.sequenceRepository, times(2)).reserveBlock(eq("bills"), anyInt());
+	}
+
+	@Test
+	void failedRefillIsRetriedInline() {
+		sequenceAllocator.refillExecutor = Runnable::run;
+		doAnswer(t -> seq.addAndGet(100)).doThrow(new DataAccessResourceFailureException("Timed out"))
+				.doAnswer(t -> seq.addAndGet(100))
+				.when(sequenceAllocator.sequenceRepository).reserveBlock("bills", 100);
+
+		assertArrayEquals(IntStream.rangeClosed(1, 80).toArray(), sequenceAllocator.next("bills", 80));
+		assertArrayEquals(IntStream.rangeClosed(81, 110).toArray(), sequenceAllocator.next("bills", 30));
+		verify(sequenceAllocator.sequenceRepository, times(3)).reserveBlock("bills", 100);
+	}
+}
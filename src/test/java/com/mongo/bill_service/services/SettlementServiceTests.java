@@ -0,0 +1,74 @@
+package com.mongo.bill_service.services;
+
+import static com.mongo.bill_service.services.Bills.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.mongo.bill_service.documents.Item;
+import com.mongo.bill_service.entities.Settlement;
+import com.mongo.bill_service.entities.Transfer;
+import com.mongo.bill_service.services.SettlementService.Party;
+
+class SettlementServiceTests {
+
+	@RegisterExtension
+	final InMemoryMongo mongo = new InMemoryMongo();
+
+	@Test
+	void spellingsOfOneNameSettleAsOne() {
+		mongo.template().insert(bill(1, 1, "Store", "01/10/2026", "Asha",
+				new Item(1, "Milk", 2, 3050, 6100, List.of("Asha", "ravi "))));
+		mongo.template().insert(bill(2, 1, "Store", "02/10/2026", " asha",
+				new Item(1, "Tea", 1, 1200, 1200, List.of("ASHA", "Ravi"))));
+		// Nobody paid, so nobody is owed for it
+		mongo.template().insert(bill(3, 1, "Store", "03/10/2026", " ",
+				new Item(1, "Bread", 1, 4000, 4000, List.of("Ravi"))));
+		mongo.template().insert(bill(4, 1, "Store", "04/10/2026", "RAVI",
+				new Item(1, "Jam", 1, 2000, 2000, List.of("Meera"))));
+
+		SettlementService settlementService = new SettlementService();
+		settlementService.mongoTemplate = mongo.template();
+		settlementService.billService = new BillService();
+
+		assertEquals(
+				new Settlement(4, 1, List.of(new Transfer("Meera", "Asha", 2000), new Transfer("ravi", "Asha", 1650))),
+				settlementService.settle(null, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31), null));
+		assertEquals(new Settlement(1, 0, List.of(new Transfer("Meera", "RAVI", 2000))),
+				settlementService.settle(null, null, null, List.of(" meera")));
+	}
+
+	@Test
+	void largestDebtorPaysLargestCreditor() {
+		List<Transfer> transfers = SettlementService.transfers(List.of(new Party("Asha", 10000),
+				new Party("Meera", 2000), new Party("Ravi", -7000), new Party("Kiran", -5000), new Party("Dev", 0)));
+
+		assertEquals(List.of(new Transfer("Ravi", "Asha", 7000), new Transfer("Kiran", "Asha", 3000),
+				new Transfer("Kiran", "Meera", 2000)), transfers);
+	}
+
+	@Test
+	void transfersSettleEveryBalance() {
+		List<Party> parties = List.of(new Party("A", 1234), new Party("B", -1), new Party("C", 766),
+				new Party("D", -999), new Party("E", -1000));
+		List<Transfer> transfers = SettlementService.transfers(parties);
+
+		Map<String, Long> net = new HashMap<String, Long>();
+		parties.forEach(t -> net.put(t.name, t.amount));
+		for (Transfer transfer : transfers) {
+			assertTrue(transfer.getAmount() > 0);
+			net.merge(transfer.getFrom(), transfer.getAmount(), Long::sum);
+			net.merge(transfer.getTo(), -transfer.getAmount(), Long::sum);
+		}
+
+		assertTrue(net.values().stream().allMatch(t -> t == 0));
+		assertTrue(transfers.size() < parties.size());
+	}
+}